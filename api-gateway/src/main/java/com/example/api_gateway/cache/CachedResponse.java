@@ -0,0 +1,22 @@
+package com.example.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Set;
+
+/**
+ * A cached 200 response body with the product ids it contains. {@code singleProduct} entries
+ * are one product by id; the others are pages whose membership can change with any write.
+ * {@code productIds} is null when the body could not be read (not JSON, or an encoding other than gzip), so any write drops it.
+ */
+record CachedResponse(HttpHeaders headers, byte[] body, String etag, long[] productIds, boolean singleProduct,
+                      long ttlNanos) {
+
+    boolean contains(Set<Long> ids) {
+        if (productIds == null) return true;
+        for (long id : productIds) {
+            if (ids.contains(id)) return true;
+        }
+        return false;
+    }
+}
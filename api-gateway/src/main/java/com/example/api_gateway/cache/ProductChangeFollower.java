@@ -0,0 +1,101 @@
+package com.example.api_gateway.cache;
+
+import com.example.api_gateway.config.ProductChangeFeedProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscribes to product-service's change stream (SSE) and drops the cached responses each
+ * change affects. Reconnects resume after the last event seen, so no change is skipped while
+ * product-service keeps the offset; a reset event clears the whole cache.
+ */
+@Slf4j
+@Component
+public class ProductChangeFollower {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final ResponseCache responseCache;
+    private final ProductChangeFeedProperties properties;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final AtomicLong lastSeq = new AtomicLong(-1);
+    private volatile Disposable subscription;
+
+    public ProductChangeFollower(ResponseCache responseCache, ProductChangeFeedProperties properties,
+                                 ObjectMapper objectMapper, WebClient.Builder webClientBuilder,
+                                 ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.baseUrl(properties.getUri()).filter(loadBalancer).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) return;
+        subscription = Flux.defer(this::connect)
+                .repeat() // the server closes streams after a while; reconnect from the last seq
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, properties.getRetryDelay())
+                        .doBeforeRetry(s -> log.debug("Product change stream failed, reconnecting: {}", s.failure().toString())))
+                .subscribe(this::apply);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable s = subscription;
+        if (s != null) s.dispose();
+    }
+
+    public long getLastSeq() {
+        return lastSeq.get();
+    }
+
+    private Flux<ServerSentEvent<String>> connect() {
+        long after = lastSeq.get();
+        if (after < 0) {
+            // first connection: whatever was cached before it may have missed changes
+            responseCache.invalidate(List.of(), true);
+        }
+        return webClient.get()
+                .uri("/api/products/changes/stream?after={after}", after)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE);
+    }
+
+    private void apply(ServerSentEvent<String> event) {
+        if (event.event() == null || event.id() == null) return; // keepalive comments
+        if ("reset".equals(event.event())) {
+            responseCache.invalidate(List.of(), true);
+        } else if ("change".equals(event.event()) && event.data() != null) {
+            try {
+                JsonNode change = objectMapper.readTree(event.data());
+                // stock deltas only affect responses showing the product; creates and prices can reorder pages
+                boolean membershipMayChange = !"STOCK_CHANGED".equals(change.path("type").asText());
+                responseCache.invalidate(List.of(change.path("productId").asLong()), membershipMayChange);
+            } catch (IOException e) {
+                responseCache.invalidate(List.of(), true);
+            }
+        }
+        lastSeq.set(Long.parseLong(event.id()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.api_gateway.cache;
+
+import com.example.api_gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Byte-array store for catalog responses, bounded by total body size. Each entry keeps its
+ * own TTL from the matching rule and the product ids found in its body, so a stock change
+ * only drops the entries that show that product.
+ */
+@Component
+public class ResponseCache {
+
+    // rough per-entry bookkeeping on top of the body, so tiny bodies still count
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String key, CachedResponse r) -> r.body().length + key.length() + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new PerEntryTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+        Gauge.builder("gateway.response.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of cacheable catalog GETs answered from the gateway cache")
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    CachedResponse put(String key, HttpHeaders headers, byte[] body, long ttlNanos) {
+        long[] ids = null;
+        boolean single = false;
+        String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        boolean gzip = "gzip".equalsIgnoreCase(encoding);
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(headers.getContentType()) && (encoding == null || gzip)) {
+            // the body is stored as sent (still compressed); only the id scan reads it decoded
+            try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(body)) : new ByteArrayInputStream(body)) {
+                JsonNode root = objectMapper.readTree(in);
+                JsonNode content = root.path("content");
+                if (content.isArray()) {
+                    ids = LongStream.range(0, content.size()).map(i -> content.get((int) i).path("id").asLong()).toArray();
+                } else if (root.hasNonNull("id")) {
+                    ids = new long[]{root.get("id").asLong()};
+                    single = true;
+                } else {
+                    ids = new long[0];
+                }
+            } catch (IOException e) {
+                // unparseable body: ids stay unknown, so any write drops it
+            }
+        }
+        CachedResponse entry = new CachedResponse(headers, body, etag(body), ids, single, ttlNanos);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Drop entries affected by a product change. Stock changes only touch entries showing one of
+     * the products; creates and price changes can move products between pages, so every page goes too.
+     * An empty id list clears everything.
+     */
+    public void invalidate(Collection<Long> productIds, boolean membershipMayChange) {
+        if (productIds == null || productIds.isEmpty()) {
+            cache.invalidateAll();
+            return;
+        }
+        Set<Long> ids = new HashSet<>(productIds);
+        cache.asMap().values().removeIf(r -> r.contains(ids) || (membershipMayChange && !r.singleProduct()));
+    }
+
+    /** Drop every page (multi-product) entry, e.g. after a create; single-product entries stay. */
+    public void invalidatePages() {
+        cache.asMap().values().removeIf(r -> !r.singleProduct());
+    }
+
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class PerEntryTtl implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
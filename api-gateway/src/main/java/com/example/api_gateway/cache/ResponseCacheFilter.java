@@ -0,0 +1,241 @@
+package com.example.api_gateway.cache;
+
+import com.example.api_gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves catalog GETs from {@link ResponseCache} and fills it from upstream 200s. Every
+ * cacheable response carries an ETag; a matching If-None-Match is answered with 304 whether
+ * the entry was cached or just fetched. Successful product writes passing through the gateway
+ * invalidate locally right away, by product id where the write names one; every gateway also
+ * applies all product changes from product-service's change stream ({@link ProductChangeFollower}).
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    // product writes and what they can change; other non-GETs (e.g. POST /batch lookups) are reads
+    private static final Pattern PRICE_PATH = Pattern.compile("^/api/products/(\\d+)/price$");
+    private static final Pattern REDUCE_PATH = Pattern.compile("^/api/products/(\\d+)/reduce$");
+    private static final Pattern RESERVE_PATH = Pattern.compile("^/api/products/reserve(/bulk)?$");
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("gateway.response.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gateway.response.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        String path = request.getPath().value();
+        if (request.getMethod() != HttpMethod.GET) {
+            return path.startsWith("/api/products") ? invalidateAfterWrite(exchange, chain, path) : chain.filter(exchange);
+        }
+        ResponseCacheProperties.Rule rule = matchRule(path);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        CachedResponse cached = isNoCache(request) ? null : cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return respond(exchange, cached, "HIT");
+        }
+        misses.increment();
+        StoringResponse storing = new StoringResponse(exchange, key, rule.getTtl().toNanos());
+        return chain.filter(exchange.mutate().response(storing).build());
+    }
+
+    // after authentication and rate limiting, before request coalescing
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 25;
+    }
+
+    private ResponseCacheProperties.Rule matchRule(String path) {
+        for (ResponseCacheProperties.Rule rule : properties.getRules()) {
+            if (pathMatcher.match(rule.getPattern(), path)) return rule;
+        }
+        return null;
+    }
+
+    private Mono<Void> invalidateAfterWrite(ServerWebExchange exchange, GatewayFilterChain chain, String path) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        Matcher price = PRICE_PATH.matcher(path);
+        Matcher reduce = REDUCE_PATH.matcher(path);
+        if (method == HttpMethod.POST && path.equals("/api/products")) {
+            return onSuccess(exchange, chain, cache::invalidatePages); // a new product can only show up on pages
+        }
+        if (method == HttpMethod.PUT && price.matches()) {
+            long id = Long.parseLong(price.group(1));
+            return onSuccess(exchange, chain, () -> cache.invalidate(List.of(id), true));
+        }
+        if (method == HttpMethod.POST && reduce.matches()) {
+            long id = Long.parseLong(reduce.group(1));
+            return onSuccess(exchange, chain, () -> cache.invalidate(List.of(id), false));
+        }
+        if (method == HttpMethod.POST && RESERVE_PATH.matcher(path).matches()) {
+            // stock-only change to the products named in the body
+            return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, request -> {
+                List<Long> ids = productIdsIn(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+                ServerWebExchange withBody = exchange.mutate().request(request).build();
+                return onSuccess(withBody, chain, () -> {
+                    if (!ids.isEmpty()) cache.invalidate(ids, false);
+                });
+            });
+        }
+        return chain.filter(exchange);
+    }
+
+    private static Mono<Void> onSuccess(ServerWebExchange exchange, GatewayFilterChain chain, Runnable invalidation) {
+        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && status.is2xxSuccessful()) invalidation.run();
+        }));
+    }
+
+    private List<Long> productIdsIn(DataBuffer body) {
+        if (body == null) return List.of();
+        try {
+            JsonNode root = objectMapper.readTree(body.toString(StandardCharsets.UTF_8));
+            return root.findValues("productId").stream().map(JsonNode::asLong).distinct().toList();
+        } catch (IOException e) {
+            return List.of(); // product-service rejects it too, so nothing changes
+        }
+    }
+
+    private static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT)
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static boolean isNoCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-cache");
+    }
+
+    private static boolean etagMatches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = new ArrayList<>();
+        for (String value : request.getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH)) {
+            for (String tag : value.split(",")) ifNoneMatch.add(tag.trim());
+        }
+        return ifNoneMatch.stream().anyMatch(t -> t.equals("*") || t.equals(etag) || t.equals("W/" + etag));
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set("X-Cache", cacheStatus);
+        if (etagMatches(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /** Buffers a 200 body, stores it and then answers like a cache hit would (ETag, 304). */
+    private final class StoringResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final long ttlNanos;
+
+        StoringResponse(ServerWebExchange exchange, String key, long ttlNanos) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != 200 || !isStorable(getHeaders())) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                if (bytes.length > properties.getMaxEntryBytes()) {
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+                HttpHeaders stored = new HttpHeaders();
+                getHeaders().forEach((name, values) -> {
+                    if (isReplayable(name)) stored.put(name, values);
+                });
+                CachedResponse entry = cache.put(key, stored, bytes, ttlNanos);
+                getHeaders().setETag(entry.etag());
+                getHeaders().set("X-Cache", "MISS");
+                if (etagMatches(exchange.getRequest(), entry.etag())) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    return setComplete();
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private boolean isStorable(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+        }
+
+        private boolean isReplayable(String header) {
+            return !(HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header)
+                    || HttpHeaders.DATE.equalsIgnoreCase(header)
+                    || HttpHeaders.SET_COOKIE.equalsIgnoreCase(header)
+                    || HttpHeaders.CONNECTION.equalsIgnoreCase(header));
+        }
+    }
+}
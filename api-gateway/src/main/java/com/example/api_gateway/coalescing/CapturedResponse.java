@@ -0,0 +1,8 @@
+package com.example.api_gateway.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/** Status, headers and body of an upstream response, replayed to coalesced callers. */
+record CapturedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
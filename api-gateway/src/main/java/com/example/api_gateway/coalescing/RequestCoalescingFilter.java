@@ -0,0 +1,163 @@
+package com.example.api_gateway.coalescing;
+
+import com.example.api_gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight for identical concurrent GETs on shareable routes. The first request goes
+ * upstream with its response captured; requests with the same key that arrive while it is in
+ * flight wait for it and get a copy of the same response. If the leader fails or its response
+ * is too large to share, the waiting requests go upstream on their own.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<CapturedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || route == null || request.getMethod() != HttpMethod.GET
+                || !properties.getRouteIds().contains(route.getId()) || isStream(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        CompletableFuture<CapturedResponse> leader = new CompletableFuture<>();
+        CompletableFuture<CapturedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced(route.getId()).increment();
+            return Mono.fromFuture(existing)
+                    .flatMap(captured -> replay(exchange.getResponse(), captured))
+                    .onErrorResume(e -> chain.filter(exchange));
+        }
+
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), leader, properties.getMaxBodyBytes());
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, leader);
+                    // no body was written (error, cancel, empty response): let waiters go upstream
+                    leader.completeExceptionally(new IllegalStateException("Leader response not captured"));
+                });
+    }
+
+    // after authentication and rate limiting: every caller is still checked and counted
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 30;
+    }
+
+    private boolean isStream(ServerHttpRequest request) {
+        String path = request.getURI().getRawPath();
+        return request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM)
+                || properties.getExcludedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT)
+                + '|' + headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static Mono<Void> replay(ServerHttpResponse response, CapturedResponse captured) {
+        response.setStatusCode(captured.status());
+        response.getHeaders().putAll(captured.headers());
+        response.getHeaders().setContentLength(captured.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(captured.body())));
+    }
+
+    private Counter coalesced(String routeId) {
+        return Counter.builder("gateway.coalesced.requests").tag("route", routeId).register(meterRegistry);
+    }
+
+    /**
+     * Streams the upstream body through unchanged while copying it for waiting callers. The copy
+     * is dropped (and the waiters released) as soon as it would exceed maxBodyBytes, so a large
+     * response is never held in gateway memory.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final CompletableFuture<CapturedResponse> target;
+        private final int maxBodyBytes;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingResponse(ServerHttpResponse delegate, CompletableFuture<CapturedResponse> target, int maxBodyBytes) {
+            super(delegate);
+            this.target = target;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Flux<DataBuffer> passThrough = Flux.from(body)
+                    .map(buffer -> {
+                        capture(buffer);
+                        return (DataBuffer) buffer;
+                    })
+                    .doOnComplete(this::completeCapture);
+            return super.writeWith(passThrough);
+        }
+
+        private void capture(DataBuffer buffer) {
+            if (copy == null) return;
+            int length = buffer.readableByteCount();
+            if (copy.size() + length > maxBodyBytes) {
+                copy = null;
+                target.completeExceptionally(new IllegalStateException("Response too large to share"));
+                return;
+            }
+            byte[] chunk = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(chunk);
+            buffer.readPosition(position); // leave the buffer untouched for the client
+            copy.writeBytes(chunk);
+        }
+
+        private void completeCapture() {
+            if (copy == null || getStatusCode() == null) return;
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                        && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.put(name, values);
+                }
+            });
+            target.complete(new CapturedResponse(getStatusCode(), headers, copy.toByteArray()));
+            copy = null;
+        }
+    }
+}
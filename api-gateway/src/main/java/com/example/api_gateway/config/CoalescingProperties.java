@@ -0,0 +1,25 @@
+package com.example.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    // routes whose GET responses are the same for every caller and may be shared
+    private List<String> routeIds = new ArrayList<>();
+
+    // streamed responses (Ant patterns) are never captured: they would be buffered in full
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/products/export", "/api/products/changes/stream"));
+
+    // larger responses are not shared; waiting callers then go upstream themselves
+    private int maxBodyBytes = 1024 * 1024;
+}
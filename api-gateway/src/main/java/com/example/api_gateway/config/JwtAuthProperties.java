@@ -0,0 +1,23 @@
+package com.example.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.jwt")
+public class JwtAuthProperties {
+
+    // HS256 key shared with user-service (raw bytes of the string, as jjwt signs with)
+    private String secret;
+
+    // path patterns reachable without a token; every other routed path requires a valid one
+    private List<String> publicPaths = new ArrayList<>(List.of("/auth/**"));
+
+    // verified tokens kept in memory, each until its own exp
+    private long cacheMaxSize = 100_000;
+}
@@ -0,0 +1,22 @@
+package com.example.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.product-changes")
+public class ProductChangeFeedProperties {
+
+    // follow product-service's change stream to invalidate the response cache
+    private boolean enabled = true;
+
+    // service id resolved through the load balancer, like the lb:// routes
+    private String uri = "http://product-service";
+
+    // pause before reconnecting after the stream failed
+    private Duration retryDelay = Duration.ofSeconds(2);
+}
@@ -0,0 +1,35 @@
+package com.example.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // used for routes without their own entry
+    private Limit defaults = new Limit();
+
+    // per route id
+    private Map<String, Limit> routes = new HashMap<>();
+
+    // buckets kept in memory; idle ones are dropped (a dropped bucket comes back full)
+    private long maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Data
+    public static class Limit {
+        // burst size
+        private int capacity = 100;
+        // sustained requests per second
+        private double refillPerSecond = 50;
+    }
+}
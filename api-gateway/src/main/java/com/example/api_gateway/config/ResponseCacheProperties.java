@@ -0,0 +1,33 @@
+package com.example.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // total body bytes held; entries are weighed by size
+    private long maxBytes = 64L * 1024 * 1024;
+
+    // responses above this are passed through uncached
+    private int maxEntryBytes = 256 * 1024;
+
+    // first matching rule wins; GETs matching no rule are not cached
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        // Ant-style path pattern, e.g. /api/products/{id:\d+}
+        private String pattern;
+        private Duration ttl = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.api_gateway.security;
+
+import com.example.api_gateway.config.JwtAuthProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies HS256 JWTs issued by user-service without a JWT library: one HMAC over
+ * {@code header.payload} with a key built once at startup, a constant-time signature compare,
+ * then the payload is read for identity and {@code exp}. Results are cached until the token
+ * expires, keyed by a SHA-256 of the token so raw tokens are never held in memory; a hot token
+ * costs one digest and one map lookup.
+ */
+@Component
+public class Hs256TokenVerifier {
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, VerifiedToken> cache;
+
+    public Hs256TokenVerifier(JwtAuthProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        if (properties.getSecret() == null || properties.getSecret().isEmpty()) {
+            throw new IllegalStateException("gateway.jwt.secret must be set");
+        }
+        this.key = new SecretKeySpec(properties.getSecret().getBytes(), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayVerifiedTokens");
+    }
+
+    /** Identity carried by the token, or empty if it is malformed, forged, not HS256 or expired. */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        VerifiedToken verified = doVerify(token);
+        if (verified == null) {
+            return Optional.empty();
+        }
+        cache.put(key, verified);
+        return Optional.of(verified);
+    }
+
+    private VerifiedToken doVerify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] signature = decoder.decode(token.substring(lastDot + 1));
+            byte[] expected = mac.get().doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                return null;
+            }
+            // signature is good; the header still has to claim HS256 so no other algorithm is implied
+            JsonNode header = objectMapper.readTree(decoder.decode(token.substring(0, firstDot)));
+            if (!"HS256".equals(header.path("alg").asText())) {
+                return null;
+            }
+            JsonNode claims = objectMapper.readTree(decoder.decode(token.substring(firstDot + 1, lastDot)));
+            long expiresAt = claims.path("exp").asLong(0) * 1000;
+            if (expiresAt <= System.currentTimeMillis() || !claims.hasNonNull("sub")) {
+                return null;
+            }
+            List<String> roles = new ArrayList<>();
+            claims.path("roles").forEach(r -> roles.add(r.asText()));
+            String userId = claims.hasNonNull("uid") ? claims.get("uid").asText() : null;
+            return new VerifiedToken(claims.get("sub").asText(), userId, List.copyOf(roles), expiresAt);
+        } catch (IllegalArgumentException | IOException e) {
+            return null; // bad base64 or JSON
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance("HmacSHA256");
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken verified, long currentTime) {
+            long remainingMs = verified.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
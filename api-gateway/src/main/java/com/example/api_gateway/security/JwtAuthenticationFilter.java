@@ -0,0 +1,106 @@
+package com.example.api_gateway.security;
+
+import com.example.api_gateway.config.JwtAuthProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Authenticates requests at the edge. A Bearer token is verified once here; downstream services
+ * receive the identity as trusted headers instead of re-verifying it. Invalid tokens, and missing
+ * tokens on anything but the configured public paths, are answered with 401 before any downstream
+ * call is made.
+ * Identity headers sent by clients are always stripped so they cannot be spoofed.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+
+    private final Hs256TokenVerifier verifier;
+    private final JwtAuthProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(Hs256TokenVerifier verifier, JwtAuthProperties properties) {
+        this.verifier = verifier;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String token = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+
+        if (token == null) {
+            if (isProtected(request)) {
+                return unauthorized(exchange, null);
+            }
+            return chain.filter(exchange.mutate().request(stripIdentity(request)).build());
+        }
+
+        Optional<VerifiedToken> verified = verifier.verify(token);
+        if (verified.isEmpty()) {
+            return unauthorized(exchange, "invalid_token");
+        }
+        VerifiedToken identity = verified.get();
+        ServerHttpRequest forwarded = request.mutate().headers(h -> {
+            h.remove(USER_ID_HEADER);
+            h.remove(USER_NAME_HEADER);
+            h.remove(USER_ROLES_HEADER);
+            h.set(USER_NAME_HEADER, identity.username());
+            if (identity.userId() != null) h.set(USER_ID_HEADER, identity.userId());
+            if (!identity.roles().isEmpty()) h.set(USER_ROLES_HEADER, String.join(",", identity.roles()));
+        }).build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    // run before routing and load balancing so rejected requests never pick an instance
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private boolean isProtected(ServerHttpRequest request) {
+        if (request.getMethod() == HttpMethod.OPTIONS) {
+            return false; // CORS preflight carries no credentials
+        }
+        // deny by default: a route added later (or a service-id prefixed one) is never open by accident
+        String path = request.getPath().value();
+        return properties.getPublicPaths().stream().noneMatch(p -> pathMatcher.match(p, path));
+    }
+
+    private static ServerHttpRequest stripIdentity(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        if (!headers.containsKey(USER_ID_HEADER) && !headers.containsKey(USER_NAME_HEADER)
+                && !headers.containsKey(USER_ROLES_HEADER)) {
+            return request;
+        }
+        return request.mutate().headers(h -> {
+            h.remove(USER_ID_HEADER);
+            h.remove(USER_NAME_HEADER);
+            h.remove(USER_ROLES_HEADER);
+        }).build();
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange, String error) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+                error == null ? "Bearer" : "Bearer error=\"" + error + "\"");
+        return response.setComplete();
+    }
+}
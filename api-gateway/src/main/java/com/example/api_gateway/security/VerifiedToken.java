@@ -0,0 +1,7 @@
+package com.example.api_gateway.security;
+
+import java.util.List;
+
+/** Identity taken from a token whose signature and expiry have been checked. */
+public record VerifiedToken(String username, String userId, List<String> roles, long expiresAtMillis) {
+}
@@ -0,0 +1,36 @@
+package com.example.api_gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.product-changes.enabled=false"
+})
+@AutoConfigureWebTestClient
+class GatewayRoutingTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void serviceIdPathsAreNotRouted() {
+        // the discovery locator is off: /SERVICE-ID/** would skip the product-internal route
+        webTestClient.post().uri("/PRODUCT-SERVICE/api/products/reservations/r-1/release")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post().uri("/ORDER-SERVICE/internal/product-cache/invalidate")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void routedPathsRequireAToken() {
+        webTestClient.get().uri("/api/orders/1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
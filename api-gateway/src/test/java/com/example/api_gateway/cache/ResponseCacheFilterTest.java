@@ -0,0 +1,126 @@
+package com.example.api_gateway.cache;
+
+import com.example.api_gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCache cache =
+            new ResponseCache(new ResponseCacheProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+    private final ResponseCacheFilter filter;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private volatile String upstreamBody = "{\"id\":1,\"stock\":5}";
+    private volatile String upstreamCacheControl;
+
+    private final GatewayFilterChain upstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (upstreamCacheControl != null) response.getHeaders().setCacheControl(upstreamCacheControl);
+        if (exchange.getRequest().getMethod().name().equals("GET")) {
+            return response.writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance
+                    .wrap(upstreamBody.getBytes(StandardCharsets.UTF_8))));
+        }
+        return response.setComplete();
+    };
+
+    ResponseCacheFilterTest() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        ResponseCacheProperties.Rule byId = new ResponseCacheProperties.Rule();
+        byId.setPattern("/api/products/{id:\\d+}");
+        byId.setTtl(Duration.ofMinutes(1));
+        properties.setRules(List.of(byId));
+        filter = new ResponseCacheFilter(cache, properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void aMissIsStoredAndTheNextRequestIsAHit() {
+        MockServerWebExchange miss = get("/api/products/1");
+        filter.filter(miss, upstream).block();
+        MockServerWebExchange hit = get("/api/products/1");
+        filter.filter(hit, upstream).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(miss.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(hit.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo(upstreamBody);
+        assertThat(hit.getResponse().getHeaders().getETag())
+                .isNotNull()
+                .isEqualTo(miss.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void aMatchingIfNoneMatchIsAnswered304OnHitsAndMisses() {
+        MockServerWebExchange first = get("/api/products/1");
+        filter.filter(first, upstream).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange cached = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag));
+        filter.filter(cached, upstream).block();
+        assertThat(cached.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(cached.getResponse().getBodyAsString().block()).isEmpty();
+
+        // forced past the cache, the freshly fetched body still has the same ETag
+        MockServerWebExchange revalidated = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+        filter.filter(revalidated, upstream).block();
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        MockServerWebExchange stale = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""));
+        filter.filter(stale, upstream).block();
+        assertThat(stale.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getResponse().getBodyAsString().block()).isEqualTo(upstreamBody);
+    }
+
+    @Test
+    void aSuccessfulPriceChangeDropsTheProduct() {
+        filter.filter(get("/api/products/1"), upstream).block();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.put("/api/products/1/price")), upstream).block();
+        upstreamBody = "{\"id\":1,\"stock\":5,\"price\":2.0}";
+
+        MockServerWebExchange after = get("/api/products/1");
+        filter.filter(after, upstream).block();
+
+        assertThat(after.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(after.getResponse().getBodyAsString().block()).isEqualTo(upstreamBody);
+    }
+
+    @Test
+    void privateResponsesAndUnmatchedPathsAreNotStored() {
+        upstreamCacheControl = "private";
+        filter.filter(get("/api/products/1"), upstream).block();
+        filter.filter(get("/api/products/1"), upstream).block();
+        upstreamCacheControl = null;
+        filter.filter(get("/api/products/export"), upstream).block();
+        filter.filter(get("/api/products/export"), upstream).block();
+
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
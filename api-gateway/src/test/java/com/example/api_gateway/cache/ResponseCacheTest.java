@@ -0,0 +1,107 @@
+package com.example.api_gateway.cache;
+
+import com.example.api_gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final long TTL = 60_000_000_000L;
+
+    private final ResponseCache cache =
+            new ResponseCache(new ResponseCacheProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void stockChangesOnlyDropEntriesShowingTheProduct() {
+        cache.put("product-1", json(), bytes("{\"id\":1}"), TTL);
+        cache.put("product-2", json(), bytes("{\"id\":2}"), TTL);
+        cache.put("page-with-1", json(), bytes("{\"content\":[{\"id\":1},{\"id\":3}]}"), TTL);
+        cache.put("page-without-1", json(), bytes("{\"content\":[{\"id\":2}]}"), TTL);
+
+        cache.invalidate(List.of(1L), false);
+
+        assertThat(cache.get("product-1")).isNull();
+        assertThat(cache.get("page-with-1")).isNull();
+        assertThat(cache.get("product-2")).isNotNull();
+        assertThat(cache.get("page-without-1")).isNotNull();
+    }
+
+    @Test
+    void membershipChangesDropEveryPage() {
+        cache.put("product-2", json(), bytes("{\"id\":2}"), TTL);
+        cache.put("page-without-1", json(), bytes("{\"content\":[{\"id\":2}]}"), TTL);
+
+        cache.invalidate(List.of(1L), true);
+
+        assertThat(cache.get("product-2")).isNotNull();
+        assertThat(cache.get("page-without-1")).isNull();
+
+        cache.invalidatePages();
+        assertThat(cache.get("product-2")).isNotNull();
+        cache.invalidate(List.of(), true);
+        assertThat(cache.get("product-2")).isNull();
+    }
+
+    @Test
+    void gzipBodiesAreScannedAndUnreadableOnesDropOnAnyWrite() throws IOException {
+        HttpHeaders gzip = json();
+        gzip.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        cache.put("gzip-product-2", gzip, gzip("{\"id\":2}"), TTL);
+        HttpHeaders brotli = json();
+        brotli.set(HttpHeaders.CONTENT_ENCODING, "br");
+        cache.put("brotli-product-2", brotli, bytes("opaque"), TTL);
+
+        cache.invalidate(List.of(1L), false);
+
+        assertThat(cache.get("gzip-product-2")).isNotNull();
+        assertThat(cache.get("brotli-product-2")).isNull();
+    }
+
+    @Test
+    void theEtagFollowsTheBody() {
+        CachedResponse first = cache.put("a", json(), bytes("{\"id\":1}"), TTL);
+        CachedResponse same = cache.put("b", json(), bytes("{\"id\":1}"), TTL);
+        CachedResponse changed = cache.put("c", json(), bytes("{\"id\":1,\"stock\":2}"), TTL);
+
+        assertThat(first.etag()).startsWith("\"").endsWith("\"").isEqualTo(same.etag());
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void entriesExpireWithTheirOwnTtl() {
+        cache.put("expired", json(), bytes("{\"id\":1}"), 0);
+        cache.put("fresh", json(), bytes("{\"id\":1}"), TTL);
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("fresh")).isNotNull();
+    }
+
+    private static HttpHeaders json() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes(body));
+        }
+        return out.toByteArray();
+    }
+}
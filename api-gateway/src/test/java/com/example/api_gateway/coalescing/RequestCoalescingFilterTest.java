@@ -0,0 +1,150 @@
+package com.example.api_gateway.coalescing;
+
+import com.example.api_gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    // upstream answers only once this completes, so followers arrive while the leader is in flight
+    private final Sinks.Empty<Void> upstreamReady = Sinks.empty();
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() throws Exception {
+        RequestCoalescingFilter filter = filter(1024);
+        MockServerWebExchange leader = exchange("/api/products?page=0");
+        MockServerWebExchange follower = exchange("/api/products?page=0");
+        MockServerWebExchange otherPage = exchange("/api/products?page=1");
+
+        CompletableFuture<Void> leading = filter.filter(leader, upstream("hello ", "world")).toFuture();
+        CompletableFuture<Void> following = filter.filter(follower, upstream("hello ", "world")).toFuture();
+        CompletableFuture<Void> other = filter.filter(otherPage, upstream("other")).toFuture();
+        upstreamReady.tryEmitEmpty();
+        CompletableFuture.allOf(leading, following, other).get(5, TimeUnit.SECONDS);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(body(leader)).isEqualTo("hello world");
+        assertThat(body(follower)).isEqualTo("hello world");
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(follower.getResponse().getHeaders().getContentLength()).isEqualTo(11);
+        assertThat(body(otherPage)).isEqualTo("other");
+    }
+
+    @Test
+    void aResponseOverTheCapIsStreamedToTheLeaderAndFetchedAgainByFollowers() throws Exception {
+        RequestCoalescingFilter filter = filter(8);
+        MockServerWebExchange leader = exchange("/api/products");
+        MockServerWebExchange follower = exchange("/api/products");
+
+        CompletableFuture<Void> leading = filter.filter(leader, upstream("hello ", "world")).toFuture();
+        CompletableFuture<Void> following = filter.filter(follower, upstream("hello ", "world")).toFuture();
+        upstreamReady.tryEmitEmpty();
+        CompletableFuture.allOf(leading, following).get(5, TimeUnit.SECONDS);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(body(leader)).isEqualTo("hello world");
+        assertThat(body(follower)).isEqualTo("hello world");
+    }
+
+    @Test
+    void followersGoUpstreamWhenTheLeaderFails() throws Exception {
+        RequestCoalescingFilter filter = filter(1024);
+        MockServerWebExchange leader = exchange("/api/products/1");
+        MockServerWebExchange follower = exchange("/api/products/1");
+        GatewayFilterChain failing = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamReady.asMono().then(Mono.error(new IllegalStateException("connection reset")));
+        };
+
+        CompletableFuture<Void> leading = filter.filter(leader, failing).toFuture();
+        CompletableFuture<Void> following = filter.filter(follower, upstream("{\"id\":1}")).toFuture();
+        upstreamReady.tryEmitEmpty();
+
+        following.get(5, TimeUnit.SECONDS);
+        assertThat(leading).isCompletedExceptionally();
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(body(follower)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void otherRoutesAndNonGetsAreNotCoalesced() throws Exception {
+        RequestCoalescingFilter filter = filter(1024);
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/api/products/batch"));
+        post.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("product-service"));
+        MockServerWebExchange samePost = MockServerWebExchange.from(MockServerHttpRequest.post("/api/products/batch"));
+        samePost.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("product-service"));
+        MockServerWebExchange orders = exchange("/api/orders/1");
+        orders.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("order-service"));
+        MockServerWebExchange sameOrders = exchange("/api/orders/1");
+        sameOrders.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("order-service"));
+
+        List<CompletableFuture<Void>> calls = List.of(
+                filter.filter(post, upstream("a")).toFuture(), filter.filter(samePost, upstream("a")).toFuture(),
+                filter.filter(orders, upstream("b")).toFuture(), filter.filter(sameOrders, upstream("b")).toFuture());
+        upstreamReady.tryEmitEmpty();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    private RequestCoalescingFilter filter(int maxBodyBytes) {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setRouteIds(List.of("product-service"));
+        properties.setMaxBodyBytes(maxBodyBytes);
+        return new RequestCoalescingFilter(properties, new SimpleMeterRegistry());
+    }
+
+    // writes the body in the given chunks once upstreamReady completes
+    private GatewayFilterChain upstream(String... chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamReady.asMono().then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response.writeWith(Flux.fromArray(chunks).map(RequestCoalescingFilterTest::buffer));
+            }));
+        };
+    }
+
+    private static DataBuffer buffer(String chunk) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockServerWebExchange exchange(String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("product-service"));
+        return exchange;
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("http://localhost").predicate(e -> true).build();
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.api_gateway.ratelimit;
+
+import com.example.api_gateway.config.RateLimitProperties;
+import com.example.api_gateway.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void eachUserHasItsOwnBucketPerRoute() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaults().setCapacity(2);
+        properties.getDefaults().setRefillPerSecond(0.01);
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        assertThat(call(filter, "orders", "1")).isNull();
+        assertThat(call(filter, "orders", "1")).isNull();
+        MockServerWebExchange rejected = exchange("orders", "1");
+        filter.filter(rejected, chain).block();
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isPositive();
+
+        // another user, or the same user on another route, is not affected
+        assertThat(call(filter, "orders", "2")).isNull();
+        assertThat(call(filter, "products", "1")).isNull();
+        assertThat(forwarded).hasValue(4);
+    }
+
+    private HttpStatus call(RateLimitFilter filter, String routeId, String userId) {
+        MockServerWebExchange exchange = exchange(routeId, userId);
+        filter.filter(exchange, chain).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private static MockServerWebExchange exchange(String routeId, String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, userId));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri("http://localhost").predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void aFullBucketAdmitsItsBurstThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 10); // one permit every 100 ms
+        long now = 5 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(now + SECOND / 20)).isEqualTo(SECOND / 20);
+    }
+
+    @Test
+    void permitsComeBackAtTheRefillRateUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10);
+        long now = 5 * SECOND;
+        bucket.tryAcquire(now);
+        bucket.tryAcquire(now);
+
+        // one interval later exactly one permit is back
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isPositive();
+
+        // a long idle period refills only up to capacity
+        long later = now + 60 * SECOND;
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        long now = 5 * SECOND;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryAcquire(now) == 0) admitted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(admitted).hasValue(100);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.api_gateway.security;
+
+import com.example.api_gateway.config.JwtAuthProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Hs256TokenVerifierTest {
+
+    private final Hs256TokenVerifier verifier;
+
+    Hs256TokenVerifierTest() {
+        JwtAuthProperties properties = new JwtAuthProperties();
+        properties.setSecret(TestTokens.SECRET);
+        verifier = new Hs256TokenVerifier(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void validTokenCarriesItsIdentity() {
+        assertThat(verifier.verify(TestTokens.valid("alice", "7", "ROLE_USER", "ROLE_ADMIN"))).hasValueSatisfying(t -> {
+            assertThat(t.username()).isEqualTo("alice");
+            assertThat(t.userId()).isEqualTo("7");
+            assertThat(t.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        });
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = TestTokens.valid("alice", "7", "ROLE_USER");
+        String[] parts = token.split("\\.");
+        // claims changed under the original signature
+        String escalated = parts[0] + '.' + TestTokens.encode(
+                "{\"sub\":\"alice\",\"uid\":\"7\",\"roles\":[\"ROLE_ADMIN\"],\"exp\":"
+                        + Instant.now().plusSeconds(600).getEpochSecond() + "}") + '.' + parts[2];
+        // one signature character flipped
+        char last = parts[2].charAt(0);
+        String flipped = parts[0] + '.' + parts[1] + '.' + (last == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        assertThat(verifier.verify(escalated)).isEmpty();
+        assertThat(verifier.verify(flipped)).isEmpty();
+        assertThat(verifier.verify(parts[0] + '.' + parts[1])).isEmpty();
+        assertThat(verifier.verify("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void onlyHs256IsAccepted() {
+        String claims = "{\"sub\":\"alice\",\"exp\":" + Instant.now().plusSeconds(600).getEpochSecond() + "}";
+        String unsigned = TestTokens.encode("{\"alg\":\"none\"}") + '.' + TestTokens.encode(claims) + '.';
+
+        assertThat(verifier.verify(unsigned)).isEmpty();
+        // correctly signed with the shared key, but claiming another algorithm
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"none\"}", claims))).isEmpty();
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"HS512\"}", claims))).isEmpty();
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"RS256\"}", claims))).isEmpty();
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"HS256\"}", claims))).isPresent();
+    }
+
+    @Test
+    void expiredAndSubjectlessTokensAreRejected() {
+        long past = Instant.now().minusSeconds(1).getEpochSecond();
+        long future = Instant.now().plusSeconds(600).getEpochSecond();
+
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"HS256\"}", "{\"sub\":\"alice\",\"exp\":" + past + "}"))).isEmpty();
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"HS256\"}", "{\"sub\":\"alice\"}"))).isEmpty();
+        assertThat(verifier.verify(TestTokens.sign("{\"alg\":\"HS256\"}", "{\"exp\":" + future + "}"))).isEmpty();
+    }
+
+    @Test
+    void tokensSignedWithAnotherKeyAreRejected() {
+        JwtAuthProperties other = new JwtAuthProperties();
+        other.setSecret("another-secret-another-secret-another");
+        Hs256TokenVerifier otherVerifier = new Hs256TokenVerifier(other, new ObjectMapper(), new SimpleMeterRegistry());
+
+        assertThat(otherVerifier.verify(TestTokens.valid("alice", "7"))).isEmpty();
+    }
+}
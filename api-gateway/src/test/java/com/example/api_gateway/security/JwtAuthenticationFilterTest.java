@@ -0,0 +1,112 @@
+package com.example.api_gateway.security;
+
+import com.example.api_gateway.config.JwtAuthProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+    private final JwtAuthenticationFilter filter;
+
+    JwtAuthenticationFilterTest() {
+        JwtAuthProperties properties = new JwtAuthProperties();
+        properties.setSecret(TestTokens.SECRET);
+        filter = new JwtAuthenticationFilter(
+                new Hs256TokenVerifier(properties, new ObjectMapper(), new SimpleMeterRegistry()), properties);
+    }
+
+    @Test
+    void missingTokenIsRejectedOutsidePublicPaths() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/orders/1"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void serviceIdPrefixedPathsNeedATokenToo() {
+        // the shape of a discovery-locator route; it must not reach product-service unauthenticated
+        MockServerWebExchange exchange = exchange(
+                MockServerHttpRequest.post("/PRODUCT-SERVICE/api/products/reservations/r-1/release"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void authPathsArePublicButSpoofedIdentityIsStripped() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/auth/login")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, "1")
+                .header(JwtAuthenticationFilter.USER_NAME_HEADER, "admin")
+                .header(JwtAuthenticationFilter.USER_ROLES_HEADER, "ROLE_ADMIN"));
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers).doesNotContainKeys(JwtAuthenticationFilter.USER_ID_HEADER,
+                JwtAuthenticationFilter.USER_NAME_HEADER, JwtAuthenticationFilter.USER_ROLES_HEADER);
+    }
+
+    @Test
+    void validTokenReplacesClientSuppliedIdentity() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/orders/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestTokens.valid("alice", "7", "ROLE_USER"))
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, "1")
+                .header(JwtAuthenticationFilter.USER_ROLES_HEADER, "ROLE_ADMIN"));
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers.get(JwtAuthenticationFilter.USER_ID_HEADER)).containsExactly("7");
+        assertThat(headers.get(JwtAuthenticationFilter.USER_NAME_HEADER)).containsExactly("alice");
+        assertThat(headers.get(JwtAuthenticationFilter.USER_ROLES_HEADER)).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void invalidTokenIsRejectedEvenOnPublicPaths() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/auth/login")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not.a.token"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+                .isEqualTo("Bearer error=\"invalid_token\"");
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void corsPreflightNeedsNoToken() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.options("/api/orders"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwarded.get()).isNotNull();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
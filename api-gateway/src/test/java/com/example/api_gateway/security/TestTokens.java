@@ -0,0 +1,39 @@
+package com.example.api_gateway.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+
+/** Builds JWTs the way user-service signs them, with any header and claims. */
+final class TestTokens {
+
+    static final String SECRET = "test-secret-test-secret-test-secret";
+
+    private TestTokens() {
+    }
+
+    static String valid(String subject, String userId, String... roles) {
+        String roleClaims = roles.length == 0 ? "" : ",\"roles\":[\"" + String.join("\",\"", roles) + "\"]";
+        return sign("{\"alg\":\"HS256\"}", "{\"sub\":\"" + subject + "\",\"uid\":\"" + userId + "\"" + roleClaims
+                + ",\"exp\":" + Instant.now().plusSeconds(600).getEpochSecond() + "}");
+    }
+
+    static String sign(String header, String claims) {
+        String signingInput = encode(header) + '.' + encode(claims);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(), "HmacSHA256"));
+            byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.orderservice.client;
+
+import com.example.productcontract.ProductSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost of a batch product lookup response: the old untyped JSON (full product with
+ * description into Map) versus typed summaries in JSON and Smile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ProductEncodingBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> MAPS = new TypeReference<>() { };
+    private static final TypeReference<List<ProductSummary>> SUMMARIES = new TypeReference<>() { };
+
+    @Param({"1", "10", "50"})
+    public int cartSize;
+
+    private final ObjectMapper json = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final SmileMapper smile = new SmileMapper();
+    private byte[] untypedJson;
+    private byte[] typedJson;
+    private byte[] typedSmile;
+
+    @Setup(Level.Trial)
+    public void encode() throws IOException {
+        List<Map<String, Object>> full = new ArrayList<>();
+        List<ProductSummary> summaries = new ArrayList<>();
+        for (long id = 1; id <= cartSize; id++) {
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("id", id);
+            p.put("name", "Product " + id);
+            p.put("description", "A reasonably detailed catalog description for product " + id
+                    + " that order-service never looks at but used to download and parse anyway.");
+            p.put("price", 19.99 + id);
+            p.put("stock", 1000 + (int) id);
+            full.add(p);
+            summaries.add(new ProductSummary(id, "Product " + id, 19.99 + id, 1000 + (int) id));
+        }
+        untypedJson = json.writeValueAsBytes(full);
+        typedJson = json.writeValueAsBytes(summaries);
+        typedSmile = smile.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> jsonToMap() throws IOException {
+        return json.readValue(untypedJson, MAPS);
+    }
+
+    @Benchmark
+    public List<ProductSummary> jsonToSummary() throws IOException {
+        return json.readValue(typedJson, SUMMARIES);
+    }
+
+    @Benchmark
+    public List<ProductSummary> smileToSummary() throws IOException {
+        return smile.readValue(typedSmile, SUMMARIES);
+    }
+}
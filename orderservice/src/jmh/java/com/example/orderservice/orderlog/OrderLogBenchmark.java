@@ -0,0 +1,73 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.BenchmarkContext;
+import com.example.orderservice.config.OrderLogProperties;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order ingest throughput: one JPA insert transaction per order vs an append to the order log
+ * (group commit, with and without fsync), with 16 concurrent callers; vary them with -t.
+ * How fast the projector then moves logged orders into the table is {@link OrderLogProjectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class OrderLogBenchmark {
+
+    @Param({"jpa", "log+fsync", "log"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private OrderLogService orderLogService;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        // a fresh log per trial: the in-memory database starts empty, so nothing may be replayed into it
+        Path dir = Files.createTempDirectory("order-log-benchmark");
+        context = BenchmarkContext.start("order.log.enabled=true", "order.log.dir=" + dir);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        orderLogService = context.getBean(OrderLogService.class);
+        context.getBean(OrderLogProperties.class).setFsync(path.equals("log+fsync"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public void placeOrder() {
+        if (path.equals("jpa")) {
+            transactionTemplate.executeWithoutResult(s -> orderRepository.save(order()));
+        } else {
+            orderLogService.append(order());
+        }
+    }
+
+    static OrderEntity order() {
+        OrderEntity order = OrderEntity.builder()
+                .userId(42L).status("PLACED").totalAmount(17.5).createdAt(Instant.now()).build();
+        for (long p = 1; p <= 3; p++) {
+            order.addItem(OrderItem.builder().productId(p).quantity(2).price(2.5 * p).build());
+        }
+        return order;
+    }
+}
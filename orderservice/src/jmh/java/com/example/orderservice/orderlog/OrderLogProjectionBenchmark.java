@@ -0,0 +1,50 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per order for a burst of 20k log appends to be projected into the orders table, i.e. from
+ * the first append until the projector's backlog is empty again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class OrderLogProjectionBenchmark {
+
+    private static final int ORDERS = 20_000;
+
+    private ConfigurableApplicationContext context;
+    private OrderLogService orderLogService;
+    private OrderLogProjector projector;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        // a fresh log per trial: the in-memory database starts empty, so nothing may be replayed into it
+        Path dir = Files.createTempDirectory("order-log-benchmark");
+        context = BenchmarkContext.start("order.log.enabled=true", "order.log.dir=" + dir);
+        orderLogService = context.getBean(OrderLogService.class);
+        projector = context.getBean(OrderLogProjector.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void appendAndProject() throws InterruptedException {
+        for (int i = 0; i < ORDERS; i++) orderLogService.append(OrderLogBenchmark.order());
+        while (projector.getBacklog() > 0) Thread.sleep(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.BenchmarkContext;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write/read throughput of normalized order lines (JPA saveAll and the JDBC batch path that
+ * OrderService uses) vs the legacy itemsJson blob, in orders/s on H2.
+ * Each trial starts from 20k orders of 5 lines written in the layout under test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class OrderStorageBenchmark {
+
+    private static final int ORDERS = 20_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int CHUNK = 500;
+
+    @Param({"json-blob", "normalized-jpa", "normalized-jdbc"})
+    public String layout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private OrderBatchWriter batchWriter;
+    private OrderService orderService;
+    private TransactionTemplate transactionTemplate;
+    private int written;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        orderRepository = context.getBean(OrderRepository.class);
+        batchWriter = context.getBean(OrderBatchWriter.class);
+        orderService = context.getBean(OrderService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("delete from order_items");
+        jdbc.execute("delete from orders");
+        while (written < ORDERS) write();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public void write() {
+        List<OrderEntity> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < CHUNK; i++) chunk.add(order(written++));
+        if (layout.equals("normalized-jdbc")) {
+            transactionTemplate.executeWithoutResult(s -> batchWriter.insertAll(chunk));
+        } else {
+            transactionTemplate.executeWithoutResult(s -> orderRepository.saveAll(chunk));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public Page<OrderDTO> read() {
+        page = (page + 1) % (ORDERS / CHUNK);
+        return orderService.findAll(page, CHUNK);
+    }
+
+    private OrderEntity order(int n) {
+        OrderEntity order = OrderEntity.builder()
+                .userId((long) (n % 100))
+                .totalAmount(50.0)
+                .status("PLACED")
+                .createdAt(Instant.now())
+                .build();
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) items.add(new OrderItemDTO((long) i + 1, 2, 5.0));
+        if (layout.equals("json-blob")) {
+            try {
+                order.setItemsJson(objectMapper.writeValueAsString(items));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            items.forEach(i -> order.addItem(OrderItem.builder()
+                    .productId(i.getProductId()).quantity(i.getQuantity()).price(i.getPrice()).build()));
+        }
+        return order;
+    }
+}
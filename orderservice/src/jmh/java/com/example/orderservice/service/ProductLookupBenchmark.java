@@ -0,0 +1,108 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductCatalogCache;
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.config.ProductCacheProperties;
+import com.example.orderservice.config.ProductLookupProperties;
+import com.example.productcontract.BulkStockReservationRequest;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationRequest;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Latency (p50/p99 in the sample-time percentiles) of resolving a cart against a simulated
+ * product-service with a 2 ms round trip, per lookup mode and cart size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ProductLookupBenchmark {
+
+    private static final long ROUND_TRIP_NANOS = 2_000_000;
+
+    @Param({"BATCH", "PARALLEL", "SEQUENTIAL"})
+    public ProductLookupProperties.Mode mode;
+
+    @Param({"1", "5", "10", "20", "40"})
+    public int cartSize;
+
+    private ProductLookupService service;
+    private List<Long> cart;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ProductLookupProperties props = new ProductLookupProperties();
+        props.setMode(mode);
+        // measure the remote path only, so the near-cache is switched off
+        ProductCacheProperties cacheProps = new ProductCacheProperties();
+        cacheProps.setEnabled(false);
+        service = new ProductLookupService(new SimulatedProductClient(), props,
+                new ProductCatalogCache(cacheProps, new SimpleMeterRegistry()),
+                RetryRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+        cart = LongStream.rangeClosed(1, cartSize).boxed().collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public Map<Long, ProductSummary> findProducts() {
+        return service.findProducts(cart);
+    }
+
+    private static class SimulatedProductClient implements ProductClient {
+
+        @Override
+        public ProductSummary getProductSummary(Long id) {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return product(id);
+        }
+
+        @Override
+        public List<ProductSummary> getProductSummaries(Collection<Long> ids) {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return ids.stream().map(SimulatedProductClient::product).collect(Collectors.toList());
+        }
+
+        @Override
+        public Map<String, String> reduceStock(Long id, int qty) {
+            return Map.of("status", "OK");
+        }
+
+        @Override
+        public Map<String, String> reserveStock(StockReservationRequest request) {
+            return Map.of("status", "OK", "reservationId", UUID.randomUUID().toString());
+        }
+
+        @Override
+        public BulkStockReservationResponse reserveStockBulk(BulkStockReservationRequest request) {
+            return new BulkStockReservationResponse(
+                    request.getReservations().stream().map(r -> true).collect(Collectors.toList()),
+                    request.getReservations().stream().map(r -> UUID.randomUUID().toString()).collect(Collectors.toList()));
+        }
+
+        @Override
+        public Map<String, String> releaseReservation(String reservationId) {
+            return Map.of("status", "RELEASED");
+        }
+
+        private static ProductSummary product(Long id) {
+            return new ProductSummary(id, "product-" + id, 10.0, 1000);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ProductConcurrencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * AIMD limit on concurrent calls to product-service.
+ * Every fast call that found the limit at least half used adds roughly one slot per limit's worth
+ * of calls; every call slower than the latency threshold, failing on I/O or answered with 429/503
+ * multiplies the limit by the backoff ratio. Calls over the limit are rejected right away instead
+ * of queueing order threads behind a slow product-service.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final ProductConcurrencyProperties properties;
+    private final long latencyThresholdNanos;
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(ProductConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.limit = properties.getInitialLimit();
+        Gauge.builder("order.product.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Adaptive limit on in-flight product-service calls")
+                .register(meterRegistry);
+        Gauge.builder("order.product.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("order.product.concurrency.rejected");
+    }
+
+    /** Take a slot; every successful acquire must be followed by exactly one on* call. */
+    public synchronized boolean tryAcquire() {
+        if (properties.isEnabled() && inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlight * 2 >= limit) {
+            // only grow while the limit is actually being used
+            limit = Math.min(properties.getMaxLimit(), limit + 1.0 / limit);
+        }
+        inFlight--;
+    }
+
+    public synchronized void onDropped() {
+        decrease();
+        inFlight--;
+    }
+
+    // the call never reached product-service (e.g. bulkhead full): no signal either way
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.client;
+
+// product-service is at its adaptive concurrency limit; the call was shed without being sent
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(int limit) {
+        super("product-service concurrency limit of " + limit + " reached");
+    }
+}
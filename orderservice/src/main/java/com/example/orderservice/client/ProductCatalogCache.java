@@ -0,0 +1,81 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ProductCacheProperties;
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting near-cache of product price/metadata.
+ * Stock is deliberately not cached: it is only authoritative at reservation time.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final ProductCacheProperties properties;
+    private final Cache<Long, ProductSummary> cache;
+
+    public ProductCatalogCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productCatalog");
+    }
+
+    /**
+     * Return cached products and load the misses with a single call to {@code loader}.
+     * Ids the loader does not return are not cached and are absent from the result.
+     */
+    public Map<Long, ProductSummary> getAll(Set<Long> ids,
+                                            Function<Set<Long>, Map<Long, ProductSummary>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(ids);
+        }
+        return cache.getAll(ids, missing -> {
+            Map<Long, ProductSummary> loaded = new HashMap<>();
+            loader.apply(new LinkedHashSet<>(missing)).forEach((id, product) -> {
+                if (product != null) loaded.put(id, withoutStock(product));
+            });
+            return loaded;
+        });
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(ids);
+        }
+    }
+
+    /** Bring cached entries up to date from product-service's change log instead of dropping them. */
+    public void apply(ProductChange change) {
+        Long id = change.getProductId();
+        switch (change.getType()) {
+            case CREATED -> {
+                if (properties.isEnabled()) {
+                    cache.put(id, new ProductSummary(id, change.getName(), change.getPrice(), null));
+                }
+            }
+            case PRICE_CHANGED -> cache.asMap().computeIfPresent(id,
+                    (k, product) -> product.toBuilder().price(change.getPrice()).build());
+            case STOCK_CHANGED -> {
+                // stock is not cached
+            }
+        }
+    }
+
+    private static ProductSummary withoutStock(ProductSummary product) {
+        return product.toBuilder().stock(null).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ProductChangeFeedProperties;
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductChangeBatch;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Long-polls product-service's change log (GET /api/products/changes) on one background thread
+ * and applies every entry to the product near-cache, so price changes and new products are
+ * picked up in place rather than by dropping and re-fetching entries. The offset lives in memory:
+ * the cache is empty after a restart, so there is nothing to catch up on.
+ */
+@Slf4j
+@Component
+public class ProductChangeFollower {
+
+    private final ProductCatalogCache catalogCache;
+    private final ProductChangeFeedProperties properties;
+    private final RestClient restClient;
+    private volatile Thread worker;
+    private volatile long lastSeq = -1;
+
+    public ProductChangeFollower(ProductCatalogCache catalogCache, ProductChangeFeedProperties properties,
+                                 RestClient.Builder restClientBuilder,
+                                 @Value("${product.service.url:http://localhost:9002}") String productServiceUrl) {
+        this.catalogCache = catalogCache;
+        this.properties = properties;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofSeconds(2));
+        // must outlast the long-poll itself
+        requestFactory.setReadTimeout(properties.getWait().plusSeconds(10));
+        this.restClient = restClientBuilder.baseUrl(productServiceUrl).requestFactory(requestFactory).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) return;
+        Thread t = new Thread(this::run, "product-change-follower");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread t = worker;
+        worker = null;
+        if (t != null) t.interrupt();
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    private void run() {
+        boolean failing = false;
+        while (worker == Thread.currentThread()) {
+            try {
+                pollOnce();
+                if (failing) log.info("Following product changes again from seq {}", lastSeq);
+                failing = false;
+            } catch (Exception e) {
+                if (worker != Thread.currentThread()) return;
+                if (!failing) log.warn("Product change feed unavailable, retrying: {}", e.getMessage());
+                failing = true;
+                try {
+                    Thread.sleep(properties.getRetryDelay().toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void pollOnce() {
+        ProductChangeBatch batch = restClient.get()
+                .uri("/api/products/changes?after={after}&max={max}&waitMs={wait}",
+                        lastSeq, properties.getMaxBatch(), properties.getWait().toMillis())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(ProductChangeBatch.class);
+        if (batch == null) return;
+        if (lastSeq < 0 || batch.isReset()) {
+            // first contact, or our offset is gone: anything cached so far may have missed changes
+            catalogCache.invalidate(null);
+        }
+        for (ProductChange change : batch.getChanges()) {
+            catalogCache.apply(change);
+        }
+        lastSeq = batch.getLastSeq();
+    }
+}
@@ -1,20 +1,46 @@
 package com.example.orderservice.client;
 
+import com.example.productcontract.BulkStockReservationRequest;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationRequest;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "product-service", url = "${product.service.url:http://localhost:9002}")
+// typed against the shared product-contract; responses are JSON or Smile, see ProductClientConfiguration
+@FeignClient(name = "product-service", url = "${product.service.url:http://localhost:9002}",
+        configuration = ProductClientConfiguration.class)
 public interface ProductClient {
 
-    @GetMapping("/api/products/{id}")
-    Map<String, Object> getProductById(@PathVariable("id") Long id);
-    // Note: returns generic map to avoid sharing DTO jar; in full repo you would use shared DTOs.
+    @GetMapping("/api/products/{id}/summary")
+    ProductSummary getProductSummary(@PathVariable("id") Long id);
+
+    // fetch several products in one round trip; unknown ids are simply absent from the result
+    @PostMapping(value = "/api/products/batch/summary", consumes = MediaType.APPLICATION_JSON_VALUE)
+    List<ProductSummary> getProductSummaries(@RequestBody Collection<Long> ids);
 
     @PostMapping("/api/products/{id}/reduce")
     Map<String, String> reduceStock(@PathVariable("id") Long id, @RequestParam int qty);
-}
\ No newline at end of file
+
+    // all-or-nothing reservation for every line of an order; 409 if any product is short.
+    // The response carries the reservationId to release it with
+    @PostMapping(value = "/api/products/reserve", consumes = MediaType.APPLICATION_JSON_VALUE)
+    Map<String, String> reserveStock(@RequestBody StockReservationRequest request);
+
+    // independent reservations for many orders in one round trip; outcome per reservation
+    @PostMapping(value = "/api/products/reserve/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    BulkStockReservationResponse reserveStockBulk(@RequestBody BulkStockReservationRequest request);
+
+    // give back a reservation whose order could not be stored; only the first call per id returns stock
+    @PostMapping("/api/products/reservations/{reservationId}/release")
+    Map<String, String> releaseReservation(@PathVariable("reservationId") String reservationId);
+}
@@ -0,0 +1,67 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ProductLookupProperties;
+import com.example.productcontract.ContractMediaTypes;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import feign.Capability;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feign setup for {@link ProductClient} only (not component-scanned, so the rest of the app is
+ * unaffected). Responses are decoded as Smile or JSON by their Content-Type; which one is asked
+ * for is set by {@code order.product-lookup.encoding}. Every call goes through the adaptive
+ * concurrency limiter and the {@code productService} bulkhead.
+ */
+public class ProductClientConfiguration {
+
+    @Bean
+    public Decoder productClientDecoder(HttpMessageConverters converters, Jackson2ObjectMapperBuilder builder,
+                                        ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        MappingJackson2SmileHttpMessageConverter smile =
+                new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+        List<HttpMessageConverter<?>> all = new ArrayList<>(converters.getConverters());
+        all.add(smile);
+        HttpMessageConverters withSmile = new HttpMessageConverters(false, all);
+        return new ResponseEntityDecoder(new SpringDecoder(() -> withSmile, customizers));
+    }
+
+    @Bean
+    public RequestInterceptor productClientAccept(ProductLookupProperties properties) {
+        String accept = properties.getEncoding() == ProductLookupProperties.Encoding.SMILE
+                ? ContractMediaTypes.SMILE + ", " + ContractMediaTypes.JSON + ";q=0.9"
+                : ContractMediaTypes.JSON;
+        return template -> {
+            template.removeHeader(HttpHeaders.ACCEPT);
+            template.header(HttpHeaders.ACCEPT, accept);
+        };
+    }
+
+    // service credential product-service requires on stock releases (product.reservations.release-token there)
+    @Bean
+    public RequestInterceptor productClientServiceToken(@Value("${product.service.token:}") String token) {
+        return template -> {
+            if (!token.isEmpty()) template.header("X-Service-Token", token);
+        };
+    }
+
+    @Bean
+    public Capability productServiceLimits(AdaptiveConcurrencyLimiter limiter, BulkheadRegistry bulkheads) {
+        return new ProductServiceLimitsCapability(limiter, bulkheads.bulkhead("productService"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.orderservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+
+import java.io.IOException;
+
+/**
+ * Wraps the Feign HTTP client of {@link ProductClient} so every request to product-service passes
+ * the adaptive concurrency limiter and then the static resilience4j bulkhead. The measured latency
+ * is the time until the response headers arrive.
+ */
+public class ProductServiceLimitsCapability implements Capability {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Bulkhead bulkhead;
+
+    public ProductServiceLimitsCapability(AdaptiveConcurrencyLimiter limiter, Bulkhead bulkhead) {
+        this.limiter = limiter;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            if (!limiter.tryAcquire()) {
+                throw new ConcurrencyLimitExceededException(limiter.getLimit());
+            }
+            try {
+                bulkhead.acquirePermission();
+            } catch (RuntimeException e) {
+                limiter.onIgnored();
+                throw e;
+            }
+            long start = System.nanoTime();
+            try {
+                Response response = client.execute(request, options);
+                if (response.status() == 429 || response.status() == 503) {
+                    limiter.onDropped();
+                } else {
+                    limiter.onSuccess(System.nanoTime() - start);
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                limiter.onDropped();
+                throw e;
+            } finally {
+                bulkhead.onComplete();
+            }
+        };
+    }
+}
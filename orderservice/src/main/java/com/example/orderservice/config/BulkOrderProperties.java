@@ -0,0 +1,20 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.bulk")
+public class BulkOrderProperties {
+
+    // largest batch accepted by POST /api/orders/bulk
+    private int maxOrders = 10_000;
+
+    // orders per stock reservation call and per insert transaction; results are streamed per chunk
+    private int chunkSize = 500;
+
+    // above this many orders the response is streamed as NDJSON unless the client asked for JSON only
+    private int streamThreshold = 100;
+}
@@ -0,0 +1,25 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+
+    // completed keys kept in memory in front of the table (LRU beyond this)
+    private int maxSize = 10_000;
+
+    // how long a key replays its original response, in memory and in the table
+    private Duration retention = Duration.ofHours(24);
+
+    // an unfinished claim older than this is assumed abandoned and may be taken over
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    // a concurrent duplicate waits this long for the first request before getting 409
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,28 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.async")
+public class OrderAsyncProperties {
+
+    // run the background dispatcher on this instance
+    private boolean dispatcherEnabled = true;
+
+    // outbox entries handled per poll; their product lookups are done in one call
+    private int batchSize = 50;
+
+    // transient failures (product-service down, circuit open) are retried this many times
+    private int maxAttempts = 5;
+
+    // first retry delay, doubled on every further attempt
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    // an IN_PROGRESS claim older than this is assumed abandoned and picked up again
+    private Duration claimTimeout = Duration.ofMinutes(1);
+}
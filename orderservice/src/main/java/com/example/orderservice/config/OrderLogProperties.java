@@ -0,0 +1,35 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.log")
+public class OrderLogProperties {
+
+    // placeOrder appends to the log and returns; the orders table is filled in by the projector
+    private boolean enabled = false;
+
+    // memory-mapped segments; must survive restarts (unprojected entries are replayed on startup)
+    private String dir = "data/order-log";
+
+    // size every segment is preallocated and mapped at
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // fsync each group commit; false leaves flushing to the OS (survives a process crash, not power loss)
+    private boolean fsync = true;
+
+    // most appends made durable by one fsync
+    private int maxGroupCommit = 512;
+
+    // orders inserted per JDBC batch / transaction by the projector
+    private int projectorBatchSize = 500;
+
+    // projector wait when there is nothing to do, and backoff after a failed batch
+    private Duration projectorIdleWait = Duration.ofMillis(200);
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.product-cache")
+public class ProductCacheProperties {
+
+    private boolean enabled = true;
+
+    // max number of products held locally
+    private long maxSize = 10_000;
+
+    // upper bound on staleness if a change from product-service is missed
+    private Duration ttl = Duration.ofMinutes(5);
+}
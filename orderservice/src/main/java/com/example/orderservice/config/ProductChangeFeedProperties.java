@@ -0,0 +1,25 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.product-changes")
+public class ProductChangeFeedProperties {
+
+    // follow product-service's change log to keep the near-cache current
+    private boolean enabled = true;
+
+    // how long product-service may hold a long-poll open when nothing changed
+    private Duration wait = Duration.ofSeconds(25);
+
+    // entries per poll
+    private int maxBatch = 500;
+
+    // pause after a failed poll (product-service down or restarting)
+    private Duration retryDelay = Duration.ofSeconds(2);
+}
@@ -0,0 +1,36 @@
+package com.example.orderservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Extras for the pooled Apache HttpClient 5 that Feign uses once feign-hc5 is on the classpath.
+ * Pool sizes, timeouts and compression are plain properties under spring.cloud.openfeign.
+ */
+@Configuration
+public class ProductClientHttpConfig {
+
+    // drop pooled connections idle longer than this, before product-service's keep-alive timeout closes them
+    private static final TimeValue MAX_IDLE = TimeValue.ofSeconds(30);
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction() {
+        return builder -> builder.evictExpiredConnections().evictIdleConnections(MAX_IDLE);
+    }
+
+    // leased / available / pending / max gauges under httpcomponents.httpclient.pool.*
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(HttpClientConnectionManager connectionManager) {
+        return registry -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+}
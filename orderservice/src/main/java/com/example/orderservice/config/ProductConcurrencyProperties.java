@@ -0,0 +1,29 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.product-concurrency")
+public class ProductConcurrencyProperties {
+
+    // adapt the number of in-flight product-service calls; when off only the static bulkhead applies
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    // no point going above the per-route connection pool
+    private int maxLimit = 50;
+
+    // a call slower than this (or failing) shrinks the limit
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    // multiplicative decrease applied on every slow or failed call
+    private double backoffRatio = 0.9;
+}
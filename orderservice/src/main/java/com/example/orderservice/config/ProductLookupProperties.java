@@ -0,0 +1,38 @@
+package com.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.product-lookup")
+public class ProductLookupProperties {
+
+    public enum Mode {
+        BATCH,      // one POST /api/products/batch call per order
+        PARALLEL,   // one GET per product, fanned out on a bounded pool
+        SEQUENTIAL  // one GET per product on the request thread
+    }
+
+    public enum Encoding {
+        JSON,   // text JSON
+        SMILE   // Jackson Smile (binary JSON); product-service falls back to JSON if it can't produce it
+    }
+
+    private Mode mode = Mode.BATCH;
+
+    // wire format asked for on product lookups
+    private Encoding encoding = Encoding.SMILE;
+
+    // worker threads used in PARALLEL mode
+    private int parallelism = 16;
+
+    // pending lookups allowed in PARALLEL mode; beyond that an order falls back to one batch call
+    private int queueCapacity = 256;
+
+    // total time an order may spend waiting on product lookups
+    private Duration deadline = Duration.ofSeconds(3);
+}
@@ -1,15 +1,44 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.client.ConcurrencyLimitExceededException;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.DailyRevenueDTO;
 import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderStatusDTO;
 import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.dto.UserOrderStatsDTO;
+import com.example.orderservice.service.BulkOrderService;
+import com.example.orderservice.service.IdempotencyKeyInProgressException;
+import com.example.orderservice.service.IdempotencyKeyMismatchException;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.InsufficientStockException;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatsService;
+import com.example.orderservice.service.ProductNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -19,28 +48,147 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderStatsService orderStatsService;
+    private final ObjectMapper objectMapper;
 
+    // with an Idempotency-Key a retried request gets the original response instead of a second order
     @PostMapping
-    public ResponseEntity<OrderDTO> placeOrder(@Valid @RequestBody PlaceOrderRequest req) {
+    public ResponseEntity<OrderDTO> placeOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody PlaceOrderRequest req) {
+        if (idempotencyKey == null) {
+            return place(req);
+        }
+        return idempotencyService.execute(idempotencyKey, req, () -> place(req));
+    }
+
+    private ResponseEntity<OrderDTO> place(PlaceOrderRequest req) {
         try {
             OrderDTO created = orderService.placeOrder(req);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (IllegalArgumentException e) {
+        } catch (ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (IllegalStateException e) {
+        } catch (InsufficientStockException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        } catch (BulkheadFullException | ConcurrencyLimitExceededException e) {
+            // shed before reaching product-service; nothing was stored, so the client may simply retry
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Many orders in one call; the response has one result per order, in request order.
+     * Large batches (or clients accepting application/x-ndjson) get the results streamed
+     * as NDJSON, chunk by chunk, while the rest of the batch is still being placed.
+     */
+    @PostMapping(value = "/bulk", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> placeOrders(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody @NotEmpty List<@Valid PlaceOrderRequest> requests) {
+        bulkOrderService.checkSize(requests);
+        if (bulkOrderService.streamResults(accept, requests.size())) {
+            StreamingResponseBody body = out -> bulkOrderService.placeOrders(requests, results -> {
+                try {
+                    for (BulkOrderResult result : results) {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+        StreamingResponseBody body = out -> {
+            List<BulkOrderResult> results = new ArrayList<>(requests.size());
+            bulkOrderService.placeOrders(requests, results::addAll);
+            out.write(objectMapper.writeValueAsBytes(results));
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // asynchronous placement: 202 with the PENDING order, poll the status endpoint for the outcome
+    @PostMapping("/async")
+    public ResponseEntity<OrderDTO> submitOrder(@Valid @RequestBody PlaceOrderRequest req) {
+        OrderDTO pending = orderService.submitOrder(req);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + pending.getId() + "/status"))
+                .body(pending);
+    }
+
+    @GetMapping("/{id}/status")
+    public ResponseEntity<OrderStatusDTO> getStatus(@PathVariable Long id) {
+        return orderService.findStatus(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
         return orderService.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public List<OrderDTO> listOrders() {
-        return orderService.findAll();
+    public Page<OrderDTO> listOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") @Max(1000) int size
+    ) {
+        return orderService.findAll(page, size);
+    }
+
+    // indexed lookup by user, status and/or createdAt range [from, to) (ISO-8601 instants), newest first
+    @GetMapping("/search")
+    public Slice<OrderDTO> searchOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") @Max(1000) int size
+    ) {
+        return orderService.search(userId, status, from, to, page, size);
+    }
+
+    @GetMapping("/stats/users/{userId}")
+    public UserOrderStatsDTO userStats(@PathVariable Long userId) {
+        return orderStatsService.userStats(userId);
+    }
+
+    // per-day order counts and revenue for UTC days in [from, to]
+    @GetMapping("/stats/revenue")
+    public List<DailyRevenueDTO> revenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return orderStatsService.revenueByDay(from, to);
+    }
+
+    // NDJSON export of every order, streamed straight from a DB cursor
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = orderService::exportNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<String> idempotencyKeyReused(IdempotencyKeyMismatchException e) {
+        return ResponseEntity.unprocessableEntity().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> idempotencyKeyInProgress(IdempotencyKeyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<String> invalid(ConstraintViolationException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 }
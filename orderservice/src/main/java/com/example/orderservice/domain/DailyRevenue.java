@@ -0,0 +1,46 @@
+package com.example.orderservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Order counts and revenue per UTC day of createdAt, maintained by
+ * {@link com.example.orderservice.repository.OrderAggregateWriter}. Each day is split into
+ * {@link #SLOTS} rows (picked by order id) so concurrent placements don't all queue on one row lock;
+ * readers sum a day's slots.
+ */
+@Entity
+@Table(name = "daily_revenue")
+@IdClass(DailyRevenue.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenue {
+    public static final int SLOTS = 8;
+
+    @Id
+    @Column(name = "order_day")
+    private LocalDate day;
+
+    @Id
+    private int slot;
+
+    private long orderCount;
+
+    private long placedCount;
+
+    private double revenue; // sum of totalAmount over PLACED orders
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private int slot;
+    }
+}
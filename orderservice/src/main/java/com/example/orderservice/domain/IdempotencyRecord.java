@@ -0,0 +1,40 @@
+package com.example.orderservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a POST /api/orders sent with an Idempotency-Key.
+ * The row is inserted as a claim (no status yet) before the order is placed, so a duplicate
+ * arriving on another instance sees the key as in progress instead of placing the order again.
+ */
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+        @Index(name = "idx_order_idempotency_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 128)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body, hex
+
+    private Integer httpStatus; // null while the first request is still running
+
+    @Lob
+    private String responseBody; // OrderDTO as JSON, null for bodiless responses
+
+    private Instant createdAt;
+
+    private Instant completedAt;
+}
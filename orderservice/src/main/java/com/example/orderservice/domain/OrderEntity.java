@@ -1,33 +1,55 @@
 package com.example.orderservice.domain;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// indexes behind the search queries in OrderRepository (user, status and createdAt range)
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_orders_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class OrderEntity {
+    // ids per sequence call for orders_seq and order_items_seq (also used by OrderIdAllocator)
+    public static final int ID_BLOCK_SIZE = 50;
+
+    // sequence with a pooled allocation so order + item inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     private Long userId;
 
     private double totalAmount;
 
-    private String status; // PLACED, FAILED, CANCELLED
+    private String status; // PENDING, PLACED, FAILED, CANCELLED
 
     private Instant createdAt;
 
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<OrderItem> items = new ArrayList<>();
+
+    // legacy layout (items as a JSON blob); only set on rows not yet moved by OrderItemsMigration
     @Lob
     @Column(columnDefinition = "TEXT")
-    private String itemsJson; // store items as JSON (simple approach)
+    private String itemsJson;
+
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.orderservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Single row recording the last order-log entry already projected into the orders table.
+ * Updated in the same transaction as the projected rows, so an entry is never inserted twice.
+ */
+@Entity
+@Table(name = "order_log_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLogCheckpoint {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long lastLsn;
+
+    private Instant updatedAt;
+}
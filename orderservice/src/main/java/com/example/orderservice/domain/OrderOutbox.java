@@ -0,0 +1,47 @@
+package com.example.orderservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row written in the same transaction as a PENDING order.
+ * The table doubles as the work queue for OrderOutboxDispatcher, so no external broker is needed.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_status", columnList = "status, availableAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String status; // NEW, IN_PROGRESS, DONE
+
+    private int attempts;
+
+    private Instant availableAt; // not picked up before this (retry backoff)
+
+    private Instant claimedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private Instant createdAt;
+
+    private long version; // bumped by every claim so only one dispatcher wins a row
+}
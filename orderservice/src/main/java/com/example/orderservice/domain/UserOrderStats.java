@@ -0,0 +1,31 @@
+package com.example.orderservice.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of one user's orders, kept current by {@link com.example.orderservice.repository.OrderAggregateWriter}
+ * in the transaction that writes the orders. PENDING orders count only towards orderCount.
+ */
+@Entity
+@Table(name = "user_order_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderStats {
+
+    @Id
+    private Long userId;
+
+    private long orderCount;
+
+    private long placedCount;
+
+    private long failedCount;
+
+    private double placedAmount; // sum of totalAmount over PLACED orders
+}
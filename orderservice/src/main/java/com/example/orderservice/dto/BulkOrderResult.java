@@ -0,0 +1,22 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a bulk placement, identified by its position in the request.
+ * PLACED orders carry the stored order; REJECTED (bad request or not enough stock) and
+ * FAILED (product-service or storage unavailable) ones carry a reason and were not stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResult {
+    private int index;
+    private String status; // PLACED, REJECTED, FAILED
+    private OrderDTO order;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOrderStatsDTO {
+    private Long userId;
+    private long orderCount;
+    private long placedCount;
+    private long failedCount;
+    private long pendingCount;
+    private double placedAmount;
+}
@@ -0,0 +1,268 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.config.OrderLogProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only order log on memory-mapped, preallocated segment files named after their first
+ * log sequence number (LSN). Entries are framed as {@code [length][crc32][payload]}; a zero length
+ * marks the end of the written part of a segment.
+ * <p>
+ * A single writer thread takes every append queued since its last pass, copies them into the
+ * mapped segment and makes them durable with one fsync (group commit) before completing their
+ * futures, so concurrent callers share the cost of a flush. On open, the last segment is scanned
+ * up to the last intact entry and anything torn after it is zeroed.
+ */
+@Slf4j
+public class OrderLog implements Closeable {
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+
+    private final OrderLogProperties properties;
+    private final Path dir;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private Consumer<List<OrderLogEntry>> listener;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile long lastLsn;
+
+    // writer thread only (and open/close)
+    private MappedByteBuffer active;
+
+    private record Append(OrderLogEntry entry, CompletableFuture<OrderLogEntry> result) {
+    }
+
+    public OrderLog(OrderLogProperties properties) {
+        this.properties = properties;
+        this.dir = Paths.get(properties.getDir());
+    }
+
+    /**
+     * Recover the log, hand every entry after {@code replayAfterLsn} to the listener, then accept
+     * appends. The listener is then called by the writer with each durable group, in LSN order.
+     */
+    public void open(long replayAfterLsn, Consumer<List<OrderLogEntry>> listener) throws IOException {
+        this.listener = listener;
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(p -> segments.put(firstLsnOf(p), p));
+        }
+        if (segments.isEmpty()) {
+            lastLsn = Math.max(0, replayAfterLsn);
+            mapSegment(lastLsn + 1);
+        } else {
+            Long from = segments.floorKey(replayAfterLsn + 1);
+            List<OrderLogEntry> replay = new ArrayList<>();
+            for (Map.Entry<Long, Path> segment : segments.tailMap(from == null ? segments.firstKey() : from).entrySet()) {
+                boolean last = segment.getKey().equals(segments.lastKey());
+                MappedByteBuffer buffer = map(segment.getValue(), last);
+                long next = scan(buffer, segment.getKey(), e -> {
+                    if (e.getLsn() > replayAfterLsn) replay.add(e);
+                });
+                if (last) {
+                    active = buffer;
+                    lastLsn = next - 1;
+                }
+            }
+            if (!replay.isEmpty()) {
+                listener.accept(replay);
+            }
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Order log at {}: {} segment(s), last lsn {}", dir.toAbsolutePath(), segments.size(), lastLsn);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // whatever the writer did not take (it stopped early, or is stuck) will never be written
+        failQueued(new IllegalStateException("Order log closed before the entry was written"));
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    /** Queue an entry; the future completes with its LSN set once it is durable. */
+    public CompletableFuture<OrderLogEntry> append(OrderLogEntry entry) {
+        CompletableFuture<OrderLogEntry> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Order log is not accepting appends"));
+            return result;
+        }
+        Append append = new Append(entry, result);
+        queue.add(append);
+        // close() may have stopped the writer between the check and the add: if the writer is gone
+        // and the entry still queued, nobody will take it
+        if (!running && queue.remove(append)) {
+            result.completeExceptionally(new IllegalStateException("Order log is not accepting appends"));
+        }
+        return result;
+    }
+
+    public long lastLsn() {
+        return lastLsn;
+    }
+
+    /** Delete whole segments whose entries are all at or below {@code lsn}; the active one is kept. */
+    public void deleteSegmentsUpTo(long lsn) {
+        for (Map.Entry<Long, Path> segment : segments.headMap(segments.lastKey()).entrySet()) {
+            Long nextFirst = segments.higherKey(segment.getKey());
+            if (nextFirst == null || nextFirst - 1 > lsn) break;
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+            } catch (IOException e) {
+                log.warn("Could not delete order log segment {}", segment.getValue(), e);
+                break;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, properties.getMaxGroupCommit() - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // the log's state is unknown; stop taking orders rather than acknowledge lost ones
+                log.error("Order log write failed; appends are disabled until restart", e);
+                running = false;
+                batch.forEach(a -> a.result().completeExceptionally(e));
+                failQueued(e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        List<Append> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(a -> a.result().completeExceptionally(cause));
+    }
+
+    private void commit(List<Append> batch) throws IOException {
+        List<OrderLogEntry> written = new ArrayList<>(batch.size());
+        int flushFrom = active.position();
+        for (Append append : batch) {
+            OrderLogEntry entry = append.entry().toBuilder().lsn(lastLsn + 1).build();
+            byte[] payload = entry.encode();
+            if (active.remaining() < HEADER_BYTES + payload.length + HEADER_BYTES) {
+                flush(flushFrom);
+                mapSegment(entry.getLsn());
+                flushFrom = 0;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            active.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            lastLsn = entry.getLsn();
+            written.add(entry);
+        }
+        flush(flushFrom);
+        listener.accept(written);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(written.get(i));
+        }
+    }
+
+    private void flush(int from) {
+        if (properties.isFsync() && active.position() > from) {
+            active.force(from, active.position() - from);
+        }
+    }
+
+    // read intact entries from the start of a segment; returns the next LSN and leaves the buffer
+    // positioned after the last intact entry (torn bytes beyond it are zeroed when writable)
+    private long scan(MappedByteBuffer buffer, long firstLsn, Consumer<OrderLogEntry> consumer) {
+        long expected = firstLsn;
+        CRC32 crc = new CRC32();
+        int end = 0;
+        int tornLength = 0;
+        while (buffer.limit() - end >= HEADER_BYTES) {
+            int length = buffer.getInt(end);
+            if (length == 0) break;
+            int checksum = buffer.getInt(end + 4);
+            if (length < 0 || length > buffer.limit() - end - HEADER_BYTES) {
+                tornLength = HEADER_BYTES;
+                break;
+            }
+            ByteBuffer payload = buffer.slice(end + HEADER_BYTES, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            OrderLogEntry entry = (int) crc.getValue() == checksum ? OrderLogEntry.decode(payload) : null;
+            if (entry == null || entry.getLsn() != expected) {
+                tornLength = HEADER_BYTES + length;
+                break;
+            }
+            consumer.accept(entry);
+            expected++;
+            end += HEADER_BYTES + length;
+        }
+        if (tornLength > 0 && !buffer.isReadOnly()) {
+            log.warn("Zeroing {} torn byte(s) after lsn {} in the order log", tornLength, expected - 1);
+            for (int i = end; i < end + tornLength; i++) buffer.put(i, (byte) 0);
+            buffer.force(end, tornLength);
+        }
+        buffer.position(end);
+        return expected;
+    }
+
+    private void mapSegment(long firstLsn) throws IOException {
+        Path path = dir.resolve(String.format("%s%020d%s", PREFIX, firstLsn, SUFFIX));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(properties.getSegmentSize().toBytes());
+        }
+        active = map(path, true);
+        segments.put(firstLsn, path);
+    }
+
+    private static MappedByteBuffer map(Path path, boolean writable) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), writable ? "rw" : "r")) {
+            return file.getChannel().map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, file.length());
+        }
+    }
+
+    private static long firstLsnOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.config.OrderLogProperties;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.orderservice.repository.OrderIdAllocator;
+import com.example.orderservice.repository.OrderLogCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "order.log", name = "enabled", havingValue = "true")
+public class OrderLogConfig {
+
+    // opened by the projector, which must replay the log before it takes new entries
+    @Bean(destroyMethod = "close")
+    public OrderLog orderLog(OrderLogProperties properties) {
+        return new OrderLog(properties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OrderLogProjector orderLogProjector(OrderLog orderLog, OrderLogProperties properties,
+                                               OrderBatchWriter batchWriter,
+                                               OrderLogCheckpointRepository checkpointRepository,
+                                               TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        OrderLogProjector projector = new OrderLogProjector(orderLog, properties, batchWriter,
+                checkpointRepository, transactionTemplate);
+        Gauge.builder("order.log.backlog", projector, OrderLogProjector::getBacklog).register(registry);
+        Gauge.builder("order.log.last.lsn", orderLog, OrderLog::lastLsn).register(registry);
+        return projector;
+    }
+
+    @Bean
+    public OrderLogService orderLogService(OrderLog orderLog, OrderLogProjector projector, OrderIdAllocator idAllocator) {
+        return new OrderLogService(orderLog, projector, idAllocator);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One placed (or failed) order as recorded in the {@link OrderLog}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class OrderLogEntry {
+    private long lsn; // assigned by the log on append
+    private long orderId;
+    private Long userId;
+    private String status;
+    private double totalAmount;
+    private Instant createdAt;
+    private List<OrderItemDTO> items;
+
+    public OrderDTO toDto() {
+        return OrderDTO.builder()
+                .id(orderId)
+                .userId(userId)
+                .items(items)
+                .status(status)
+                .totalAmount(totalAmount)
+                .build();
+    }
+
+    public OrderEntity toEntity() {
+        OrderEntity order = OrderEntity.builder()
+                .id(orderId)
+                .userId(userId)
+                .status(status)
+                .totalAmount(totalAmount)
+                .createdAt(createdAt)
+                .build();
+        for (OrderItemDTO item : items) {
+            order.addItem(OrderItem.builder()
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .price(item.getPrice())
+                    .build());
+        }
+        return order;
+    }
+
+    // fixed binary layout; a null userId is written as -1 (ids are positive)
+    byte[] encode() {
+        byte[] statusBytes = status.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 8 + 2 + statusBytes.length + 8 + 12 + 4 + items.size() * 20);
+        buffer.putLong(lsn).putLong(orderId).putLong(userId == null ? -1 : userId);
+        buffer.putShort((short) statusBytes.length).put(statusBytes);
+        buffer.putDouble(totalAmount);
+        buffer.putLong(createdAt.getEpochSecond()).putInt(createdAt.getNano());
+        buffer.putInt(items.size());
+        for (OrderItemDTO item : items) {
+            buffer.putLong(item.getProductId()).putInt(item.getQuantity()).putDouble(item.getPrice());
+        }
+        return buffer.array();
+    }
+
+    static OrderLogEntry decode(ByteBuffer buffer) {
+        OrderLogEntry entry = new OrderLogEntry();
+        entry.lsn = buffer.getLong();
+        entry.orderId = buffer.getLong();
+        long userId = buffer.getLong();
+        entry.userId = userId == -1 ? null : userId;
+        byte[] statusBytes = new byte[buffer.getShort()];
+        buffer.get(statusBytes);
+        entry.status = new String(statusBytes, StandardCharsets.UTF_8);
+        entry.totalAmount = buffer.getDouble();
+        entry.createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        int n = buffer.getInt();
+        entry.items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            entry.items.add(new OrderItemDTO(buffer.getLong(), buffer.getInt(), buffer.getDouble()));
+        }
+        return entry;
+    }
+}
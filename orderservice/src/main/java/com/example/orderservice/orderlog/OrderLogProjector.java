@@ -0,0 +1,131 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.config.OrderLogProperties;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderLogCheckpoint;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.orderservice.repository.OrderLogCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Copies order-log entries into the orders and order_items tables with JDBC batch inserts ({@link OrderBatchWriter}),
+ * one transaction per batch that also advances {@link OrderLogCheckpoint}. On start, everything
+ * logged after the checkpoint is replayed, so an acknowledged order reaches the table exactly once
+ * even if the service died before projecting it. Until then it is served from {@link #findPending}.
+ */
+@Slf4j
+public class OrderLogProjector implements Closeable {
+
+    private final OrderLog orderLog;
+    private final OrderLogProperties properties;
+    private final OrderBatchWriter batchWriter;
+    private final OrderLogCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<OrderLogEntry> backlog = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<Long, OrderLogEntry> pending = new ConcurrentHashMap<>();
+    private Thread thread;
+    private volatile boolean running;
+
+    public OrderLogProjector(OrderLog orderLog, OrderLogProperties properties, OrderBatchWriter batchWriter,
+                             OrderLogCheckpointRepository checkpointRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.orderLog = orderLog;
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Open the log (replaying unprojected entries) and start projecting. */
+    public void start() throws IOException {
+        long checkpoint = checkpointRepository.findById(OrderLogCheckpoint.SINGLETON_ID)
+                .map(OrderLogCheckpoint::getLastLsn)
+                .orElse(0L);
+        orderLog.open(checkpoint, this::accept);
+        log.info("Order log projector starting after lsn {} with {} entr(ies) to replay", checkpoint, backlog.size());
+        running = true;
+        thread = new Thread(this::run, "order-log-projector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** An order that is durable in the log but not yet in the orders table. */
+    public Optional<OrderLogEntry> findPending(long orderId) {
+        return Optional.ofNullable(pending.get(orderId));
+    }
+
+    public int getBacklog() {
+        return pending.size();
+    }
+
+    private void accept(List<OrderLogEntry> entries) {
+        for (OrderLogEntry entry : entries) {
+            pending.put(entry.getOrderId(), entry);
+        }
+        backlog.addAll(entries);
+    }
+
+    private void run() {
+        List<OrderLogEntry> batch = new ArrayList<>();
+        while (running || !backlog.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    OrderLogEntry first = backlog.poll(properties.getProjectorIdleWait().toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    backlog.drainTo(batch, properties.getProjectorBatchSize() - 1);
+                }
+                project(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // keep the batch and retry; nothing after it is projected out of order
+                log.warn("Projecting {} order(s) failed, retrying: {}", batch.size(), e.toString());
+                try {
+                    Thread.sleep(properties.getProjectorIdleWait().toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void project(List<OrderLogEntry> batch) {
+        List<OrderEntity> orders = batch.stream().map(OrderLogEntry::toEntity).collect(Collectors.toList());
+        long lastLsn = batch.get(batch.size() - 1).getLsn();
+        transactionTemplate.executeWithoutResult(tx -> {
+            batchWriter.insertAll(orders);
+            checkpointRepository.save(new OrderLogCheckpoint(OrderLogCheckpoint.SINGLETON_ID, lastLsn, Instant.now()));
+        });
+        batch.forEach(e -> pending.remove(e.getOrderId(), e));
+        orderLog.deleteSegmentsUpTo(lastLsn);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.repository.OrderIdAllocator;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/** OrderService's view of the order log: durable ingest instead of an INSERT, and reads of not yet projected orders. */
+@RequiredArgsConstructor
+public class OrderLogService {
+
+    private final OrderLog orderLog;
+    private final OrderLogProjector projector;
+    private final OrderIdAllocator idAllocator;
+
+    /** Assign an id and append the order; returns once it is durable in the log. */
+    public OrderDTO append(OrderEntity order) {
+        return appendAll(List.of(order)).get(0);
+    }
+
+    /** Append several orders at once; they usually share a single group commit. */
+    public List<OrderDTO> appendAll(List<OrderEntity> orders) {
+        List<CompletableFuture<OrderLogEntry>> appended = orders.stream()
+                .map(o -> orderLog.append(toEntry(o)))
+                .collect(Collectors.toList());
+        try {
+            return appended.stream().map(f -> f.join().toDto()).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private OrderLogEntry toEntry(OrderEntity order) {
+        return OrderLogEntry.builder()
+                .orderId(idAllocator.nextOrderId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .createdAt(order.getCreatedAt())
+                .items(order.getItems().stream()
+                        .map(i -> new OrderItemDTO(i.getProductId(), i.getQuantity(), i.getPrice()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    public Optional<OrderDTO> findPending(Long orderId) {
+        return projector.findPending(orderId).map(OrderLogEntry::toDto);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.DailyRevenue;
+import com.example.orderservice.dto.DailyRevenueDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, DailyRevenue.Key> {
+
+    // one row per day with orders in [from, to], its slots summed
+    @Query("select new com.example.orderservice.dto.DailyRevenueDTO(r.day, sum(r.orderCount), sum(r.placedCount), sum(r.revenue))"
+            + " from DailyRevenue r where r.day between :from and :to group by r.day order by r.day")
+    List<DailyRevenueDTO> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
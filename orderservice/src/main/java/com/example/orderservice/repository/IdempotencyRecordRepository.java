@@ -0,0 +1,40 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // plain INSERT (save() would merge into an existing row); a duplicate key fails with DataIntegrityViolationException
+    @Modifying
+    @Query(value = "insert into order_idempotency_keys (idempotency_key, request_hash, created_at)"
+            + " values (:key, :hash, :now)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("hash") String hash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.httpStatus = :status, r.responseBody = :body, r.completedAt = :now"
+            + " where r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body,
+                 @Param("now") Instant now);
+
+    // drop our own unfinished claim so the key can be retried after a failed attempt
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.httpStatus is null")
+    int releaseClaim(@Param("key") String key);
+
+    // drop a claim whose owner died before completing it
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.httpStatus is null"
+            + " and r.createdAt < :claimedBefore")
+    int releaseStaleClaim(@Param("key") String key, @Param("claimedBefore") Instant claimedBefore);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where (r.httpStatus is not null and r.completedAt < :completedBefore)"
+            + " or (r.httpStatus is null and r.createdAt < :claimedBefore)")
+    int purge(@Param("completedBefore") Instant completedBefore, @Param("claimedBefore") Instant claimedBefore);
+}
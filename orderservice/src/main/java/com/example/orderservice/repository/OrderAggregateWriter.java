@@ -0,0 +1,129 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.DailyRevenue;
+import com.example.orderservice.domain.OrderEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Folds order writes into the user_order_stats and daily_revenue tables with MERGE statements.
+ * Callers invoke it in the transaction that writes the orders, so aggregates and orders commit
+ * (or roll back) together. Changes are summed per key first: a batch of orders costs one
+ * statement per distinct user and day slot, issued in key order to keep lock order stable.
+ */
+@Component
+@DependsOn("orderAggregatesBackfill") // seed the tables before anything can write to them
+@RequiredArgsConstructor
+public class OrderAggregateWriter {
+
+    private static final String MERGE_USER =
+            "merge into user_order_stats s using (values (cast(? as bigint), cast(? as bigint), cast(? as bigint),"
+                    + " cast(? as bigint), cast(? as double precision)))"
+                    + " v(user_id, order_count, placed_count, failed_count, placed_amount) on s.user_id = v.user_id"
+                    + " when matched then update set order_count = s.order_count + v.order_count,"
+                    + " placed_count = s.placed_count + v.placed_count, failed_count = s.failed_count + v.failed_count,"
+                    + " placed_amount = s.placed_amount + v.placed_amount"
+                    + " when not matched then insert (user_id, order_count, placed_count, failed_count, placed_amount)"
+                    + " values (v.user_id, v.order_count, v.placed_count, v.failed_count, v.placed_amount)";
+    private static final String MERGE_DAY =
+            "merge into daily_revenue r using (values (cast(? as date), cast(? as int), cast(? as bigint),"
+                    + " cast(? as bigint), cast(? as double precision)))"
+                    + " v(order_day, slot, order_count, placed_count, revenue)"
+                    + " on r.order_day = v.order_day and r.slot = v.slot"
+                    + " when matched then update set order_count = r.order_count + v.order_count,"
+                    + " placed_count = r.placed_count + v.placed_count, revenue = r.revenue + v.revenue"
+                    + " when not matched then insert (order_day, slot, order_count, placed_count, revenue)"
+                    + " values (v.order_day, v.slot, v.order_count, v.placed_count, v.revenue)";
+
+    private final JdbcTemplate jdbc;
+
+    /** Count newly inserted orders (ids must be assigned). */
+    public void ordersAdded(Collection<OrderEntity> orders) {
+        Changes changes = new Changes();
+        for (OrderEntity o : orders) {
+            changes.add(o, 1, o.getStatus(), o.getTotalAmount(), 1);
+        }
+        changes.apply();
+    }
+
+    /** Move an existing order's contribution from its previous status and total to its current ones. */
+    public void statusChanged(OrderEntity order, String previousStatus, double previousTotal) {
+        Changes changes = new Changes();
+        changes.add(order, 0, previousStatus, previousTotal, -1);
+        changes.add(order, 0, order.getStatus(), order.getTotalAmount(), 1);
+        changes.apply();
+    }
+
+    private static LocalDate dayOf(Instant createdAt) {
+        return createdAt.atOffset(ZoneOffset.UTC).toLocalDate();
+    }
+
+    // a concurrent first insert of the same key loses with a duplicate key; the retry then updates the row
+    private void merge(String sql, Object... args) {
+        try {
+            jdbc.update(sql, args);
+        } catch (DuplicateKeyException e) {
+            jdbc.update(sql, args);
+        }
+    }
+
+    private static final class Delta {
+        long orders;
+        long placed;
+        long failed;
+        double amount;
+
+        boolean isZero() {
+            return orders == 0 && placed == 0 && failed == 0 && amount == 0.0;
+        }
+    }
+
+    private final class Changes {
+        final Map<Long, Delta> users = new TreeMap<>();
+        final Map<DailyRevenue.Key, Delta> days = new TreeMap<>(
+                Comparator.comparing(DailyRevenue.Key::getDay).thenComparingInt(DailyRevenue.Key::getSlot));
+
+        // sign is +1 to add a contribution, -1 to take it back
+        void add(OrderEntity o, int orders, String status, double total, int sign) {
+            boolean placed = "PLACED".equals(status);
+            boolean failed = "FAILED".equals(status);
+            if (o.getUserId() != null) {
+                accumulate(users.computeIfAbsent(o.getUserId(), k -> new Delta()), orders, placed, failed, total, sign);
+            }
+            if (o.getCreatedAt() != null) {
+                DailyRevenue.Key key = new DailyRevenue.Key(
+                        dayOf(o.getCreatedAt()), (int) Math.floorMod(o.getId(), (long) DailyRevenue.SLOTS));
+                accumulate(days.computeIfAbsent(key, k -> new Delta()), orders, placed, failed, total, sign);
+            }
+        }
+
+        private void accumulate(Delta d, int orders, boolean placed, boolean failed, double total, int sign) {
+            d.orders += orders;
+            if (placed) {
+                d.placed += sign;
+                d.amount += sign * total;
+            }
+            if (failed) d.failed += sign;
+        }
+
+        void apply() {
+            users.forEach((userId, d) -> {
+                if (!d.isZero()) merge(MERGE_USER, userId, d.orders, d.placed, d.failed, d.amount);
+            });
+            days.forEach((key, d) -> {
+                if (!d.isZero()) merge(MERGE_DAY, key.getDay(), key.getSlot(), d.orders, d.placed, d.amount);
+            });
+        }
+    }
+}
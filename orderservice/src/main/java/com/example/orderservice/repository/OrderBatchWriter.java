@@ -0,0 +1,48 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch inserts of orders and their lines for the paths that write many orders at once
+ * (order-log projector, bulk placement). Missing ids are taken from {@link OrderIdAllocator}.
+ * The orders are also counted into the aggregate tables ({@link OrderAggregateWriter}).
+ * Call it inside a transaction so orders, lines and aggregates commit together.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderBatchWriter {
+
+    private static final String INSERT_ORDER =
+            "insert into orders (id, user_id, total_amount, status, created_at) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM =
+            "insert into order_items (id, order_id, product_id, quantity, price) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final OrderIdAllocator idAllocator;
+    private final OrderAggregateWriter aggregateWriter;
+
+    public void insertAll(List<OrderEntity> orders) {
+        List<Object[]> orderRows = new ArrayList<>(orders.size());
+        List<Object[]> itemRows = new ArrayList<>();
+        for (OrderEntity o : orders) {
+            if (o.getId() == null) o.setId(idAllocator.nextOrderId());
+            orderRows.add(new Object[]{o.getId(), o.getUserId(), o.getTotalAmount(), o.getStatus(),
+                    o.getCreatedAt().atOffset(ZoneOffset.UTC)});
+            for (OrderItem i : o.getItems()) {
+                if (i.getId() == null) i.setId(idAllocator.nextItemId());
+                itemRows.add(new Object[]{i.getId(), o.getId(), i.getProductId(), i.getQuantity(), i.getPrice()});
+            }
+        }
+        jdbc.batchUpdate(INSERT_ORDER, orderRows);
+        if (!itemRows.isEmpty()) jdbc.batchUpdate(INSERT_ITEM, itemRows);
+        aggregateWriter.ordersAdded(orders);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.OrderEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out order and order-item ids without an INSERT, for rows written outside JPA.
+ * Draws blocks from the same sequences as the entities and reads them the way Hibernate does
+ * with the pooled-lo optimizer (a sequence value is the first id of its block), so ids never
+ * collide with those assigned by {@code save()}.
+ */
+@Component
+public class OrderIdAllocator {
+
+    private final Block orders;
+    private final Block items;
+
+    public OrderIdAllocator(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.orders = new Block(jdbc, dialect.getSequenceSupport().getSequenceNextValString("orders_seq"));
+        this.items = new Block(jdbc, dialect.getSequenceSupport().getSequenceNextValString("order_items_seq"));
+    }
+
+    public long nextOrderId() {
+        return orders.next();
+    }
+
+    public long nextItemId() {
+        return items.next();
+    }
+
+    private static final class Block {
+        private final JdbcTemplate jdbc;
+        private final String nextValSql;
+        private long next;
+        private long limit;
+
+        Block(JdbcTemplate jdbc, String nextValSql) {
+            this.jdbc = jdbc;
+            this.nextValSql = nextValSql;
+        }
+
+        synchronized long next() {
+            if (next == limit) {
+                Long lo = jdbc.queryForObject(nextValSql, Long.class);
+                next = lo;
+                limit = lo + OrderEntity.ID_BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // items of several orders in one query (export path), grouped by order
+    @Query("select i from OrderItem i where i.order.id in :orderIds order by i.order.id, i.id")
+    List<OrderItem> findByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // price snapshot taken when the dispatcher settles a PENDING order
+    @Modifying
+    @Query("update OrderItem i set i.price = :price where i.id = :id")
+    int updatePrice(@Param("id") Long id, @Param("price") double price);
+}
@@ -0,0 +1,7 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.OrderLogCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OrderLogCheckpointRepository extends JpaRepository<OrderLogCheckpoint, Integer> {
+}
@@ -0,0 +1,38 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.OrderOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    // due entries, plus claims abandoned by a dispatcher that died mid-batch
+    @Query("select o from OrderOutbox o where (o.status = 'NEW' and o.availableAt <= :now)"
+            + " or (o.status = 'IN_PROGRESS' and o.claimedAt < :staleBefore) order by o.id")
+    List<OrderOutbox> findDispatchable(@Param("now") Instant now, @Param("staleBefore") Instant staleBefore,
+                                       Pageable pageable);
+
+    // compare-and-set claim: 1 if this dispatcher won the row, 0 if someone else got there first
+    @Modifying
+    @Query("update OrderOutbox o set o.status = 'IN_PROGRESS', o.claimedAt = :now, o.version = o.version + 1"
+            + " where o.id = :id and o.version = :version")
+    int claim(@Param("id") Long id, @Param("version") long version, @Param("now") Instant now);
+
+    // both guarded by the claim's version: a dispatcher whose claim was taken over after a timeout matches 0 rows
+    @Modifying
+    @Query("update OrderOutbox o set o.status = 'DONE', o.attempts = :attempts, o.version = o.version + 1"
+            + " where o.id = :id and o.version = :version")
+    int complete(@Param("id") Long id, @Param("version") long version, @Param("attempts") int attempts);
+
+    @Modifying
+    @Query("update OrderOutbox o set o.status = 'NEW', o.attempts = :attempts, o.availableAt = :availableAt,"
+            + " o.lastError = :lastError, o.version = o.version + 1 where o.id = :id and o.version = :version")
+    int reschedule(@Param("id") Long id, @Param("version") long version, @Param("attempts") int attempts,
+                   @Param("availableAt") Instant availableAt, @Param("lastError") String lastError);
+}
@@ -1,6 +1,67 @@
 package com.example.orderservice.repository;
 
 import com.example.orderservice.domain.OrderEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> { }
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+
+    // fetch-join read paths: an order and its lines in a single query
+    @Query("select o from OrderEntity o left join fetch o.items where o.id = :id")
+    Optional<OrderEntity> findWithItemsById(@Param("id") Long id);
+
+    @Query("select distinct o from OrderEntity o left join fetch o.items where o.id in :ids")
+    List<OrderEntity> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // search by user / status / createdAt in [from, to), newest first; each one is served by an index on
+    // orders and returns a Slice, so no count query scans the matching rows
+    @Query("select o from OrderEntity o where o.userId = :userId and o.createdAt >= :from and o.createdAt < :to"
+            + " order by o.createdAt desc, o.id desc")
+    Slice<OrderEntity> findByUser(@Param("userId") Long userId, @Param("from") Instant from,
+                                  @Param("to") Instant to, Pageable pageable);
+
+    @Query("select o from OrderEntity o where o.userId = :userId and o.status = :status"
+            + " and o.createdAt >= :from and o.createdAt < :to order by o.createdAt desc, o.id desc")
+    Slice<OrderEntity> findByUserAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                           @Param("from") Instant from, @Param("to") Instant to, Pageable pageable);
+
+    @Query("select o from OrderEntity o where o.status = :status and o.createdAt >= :from and o.createdAt < :to"
+            + " order by o.createdAt desc, o.id desc")
+    Slice<OrderEntity> findByStatus(@Param("status") String status, @Param("from") Instant from,
+                                    @Param("to") Instant to, Pageable pageable);
+
+    @Query("select o from OrderEntity o where o.createdAt >= :from and o.createdAt < :to"
+            + " order by o.createdAt desc, o.id desc")
+    Slice<OrderEntity> findByCreatedAt(@Param("from") Instant from, @Param("to") Instant to, Pageable pageable);
+
+    // moves a PENDING order to its outcome; 0 if it was settled (or cancelled) in the meantime
+    @Modifying
+    @Query("update OrderEntity o set o.status = :status, o.totalAmount = :total"
+            + " where o.id = :id and o.status = 'PENDING'")
+    int settlePending(@Param("id") Long id, @Param("status") String status, @Param("total") double total);
+
+    // legacy rows still carrying the JSON blob, for OrderItemsMigration
+    @Query("select o from OrderEntity o where o.itemsJson is not null order by o.id")
+    List<OrderEntity> findLegacyJsonOrders(Pageable pageable);
+
+    // cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from OrderEntity o order by o.id")
+    Stream<OrderEntity> streamAll();
+}
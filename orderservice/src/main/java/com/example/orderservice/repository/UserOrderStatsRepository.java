@@ -0,0 +1,7 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long> {
+}
@@ -0,0 +1,212 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.config.BulkOrderProperties;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.orderlog.OrderLogService;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.productcontract.BulkStockReservationRequest;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationItem;
+import com.example.productcontract.StockReservationRequest;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Places many orders in one request. Products are looked up once for the whole batch; then,
+ * per chunk, every order's stock is reserved with a single bulk call (each reservation still
+ * all-or-nothing on its own) and the reserved orders are stored with one JDBC batch (or one
+ * order-log group commit). If storing fails, the chunk's reservations are given back.
+ * Unlike single placement, rejected or failed orders are reported, not stored as FAILED.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkOrderService {
+
+    private static final String PRODUCT_CB = "productServiceCB";
+
+    private final ProductLookupService productLookupService;
+    private final ProductClient productClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final OrderService orderService;
+    private final OrderBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OrderLogService> orderLog;
+    private final BulkOrderProperties properties;
+
+    /** Place the orders, handing the results of every chunk to {@code sink} in request order. */
+    public void placeOrders(List<PlaceOrderRequest> requests, Consumer<List<BulkOrderResult>> sink) {
+        checkSize(requests);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PRODUCT_CB);
+
+        // every distinct product of the batch in one lookup
+        Set<Long> productIds = requests.stream()
+                .flatMap(r -> r.getItems().stream())
+                .map(OrderItemDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, ProductSummary> products;
+        try {
+            products = productIds.isEmpty() ? Map.of()
+                    : circuitBreaker.executeSupplier(() -> productLookupService.findProducts(productIds));
+        } catch (Exception e) {
+            for (int from = 0; from < requests.size(); from += properties.getChunkSize()) {
+                List<BulkOrderResult> failed = new ArrayList<>();
+                for (int i = from; i < Math.min(requests.size(), from + properties.getChunkSize()); i++) {
+                    failed.add(failed(i, "Product lookup failed: " + e.getMessage()));
+                }
+                sink.accept(failed);
+            }
+            return;
+        }
+
+        for (int from = 0; from < requests.size(); from += properties.getChunkSize()) {
+            int to = Math.min(requests.size(), from + properties.getChunkSize());
+            sink.accept(placeChunk(requests.subList(from, to), from, products, circuitBreaker));
+        }
+    }
+
+    public void checkSize(List<PlaceOrderRequest> requests) {
+        if (requests.size() > properties.getMaxOrders()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxOrders() + " orders per bulk request");
+        }
+    }
+
+    // NDJSON when asked for, or for large batches when the client takes any type
+    public boolean streamResults(String accept, int orders) {
+        if (accept == null || accept.isBlank() || accept.contains("*/*")) {
+            return orders > properties.getStreamThreshold();
+        }
+        return accept.contains("application/x-ndjson");
+    }
+
+    private List<BulkOrderResult> placeChunk(List<PlaceOrderRequest> chunk, int offset,
+                                             Map<Long, ProductSummary> products, CircuitBreaker circuitBreaker) {
+        BulkOrderResult[] results = new BulkOrderResult[chunk.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<OrderEntity> orders = new ArrayList<>();
+        List<StockReservationRequest> reservations = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            PlaceOrderRequest req = chunk.get(i);
+            String problem = price(req, products);
+            if (problem != null) {
+                results[i] = rejected(offset + i, problem);
+                continue;
+            }
+            OrderEntity order = OrderEntity.builder()
+                    .userId(req.getUserId())
+                    .totalAmount(req.getItems().stream().mapToDouble(it -> it.getPrice() * it.getQuantity()).sum())
+                    .status("PLACED")
+                    .createdAt(Instant.now())
+                    .build();
+            orderService.addItems(order, req.getItems());
+            positions.add(i);
+            orders.add(order);
+            reservations.add(reservation(req));
+        }
+        if (orders.isEmpty()) return Arrays.asList(results);
+
+        BulkStockReservationResponse reserved;
+        try {
+            reserved = circuitBreaker.executeSupplier(() ->
+                    productClient.reserveStockBulk(new BulkStockReservationRequest(reservations)));
+        } catch (Exception e) {
+            positions.forEach(i -> results[i] = failed(offset + i, "Stock reservation failed: " + e.getMessage()));
+            return Arrays.asList(results);
+        }
+
+        List<Integer> toStorePositions = new ArrayList<>();
+        List<OrderEntity> toStore = new ArrayList<>();
+        List<String> taken = new ArrayList<>();
+        for (int k = 0; k < orders.size(); k++) {
+            int i = positions.get(k);
+            if (Boolean.TRUE.equals(reserved.getReserved().get(k))) {
+                toStorePositions.add(i);
+                toStore.add(orders.get(k));
+                taken.add(reserved.getReservationIds().get(k));
+            } else {
+                results[i] = rejected(offset + i, "Insufficient stock or product missing");
+            }
+        }
+        if (toStore.isEmpty()) return Arrays.asList(results);
+
+        try {
+            List<OrderDTO> stored = store(toStore);
+            for (int k = 0; k < stored.size(); k++) {
+                int i = toStorePositions.get(k);
+                results[i] = BulkOrderResult.builder().index(offset + i).status("PLACED").order(stored.get(k)).build();
+            }
+        } catch (Exception e) {
+            log.error("Storing {} bulk order(s) failed; releasing their stock", toStore.size(), e);
+            taken.forEach(this::release);
+            toStorePositions.forEach(i -> results[i] = failed(offset + i, "Order could not be stored"));
+        }
+        return Arrays.asList(results);
+    }
+
+    // snapshot prices into the request lines; returns why the order cannot be placed, or null
+    private static String price(PlaceOrderRequest req, Map<Long, ProductSummary> products) {
+        for (OrderItemDTO item : req.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() < 1) {
+                return "Every line needs a productId and a quantity of at least 1";
+            }
+            ProductSummary product = products.get(item.getProductId());
+            if (product == null) {
+                return "Product not found: " + item.getProductId();
+            }
+            item.setPrice(product.getPrice());
+        }
+        return null;
+    }
+
+    private static StockReservationRequest reservation(PlaceOrderRequest req) {
+        Map<Long, Integer> byProduct = new LinkedHashMap<>();
+        for (OrderItemDTO item : req.getItems()) {
+            byProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return new StockReservationRequest(byProduct.entrySet().stream()
+                .map(e -> new StockReservationItem(e.getKey(), e.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    private List<OrderDTO> store(List<OrderEntity> orders) {
+        OrderLogService logService = orderLog.getIfAvailable();
+        if (logService != null) {
+            return logService.appendAll(orders);
+        }
+        transactionTemplate.executeWithoutResult(tx -> batchWriter.insertAll(orders));
+        return orders.stream().map(orderService::toDto).collect(Collectors.toList());
+    }
+
+    private void release(String reservationId) {
+        try {
+            productClient.releaseReservation(reservationId);
+        } catch (Exception e) {
+            log.error("Could not release stock reservation {}", reservationId, e);
+        }
+    }
+
+    private static BulkOrderResult rejected(int index, String error) {
+        return BulkOrderResult.builder().index(index).status("REJECTED").error(error).build();
+    }
+
+    private static BulkOrderResult failed(int index, String error) {
+        return BulkOrderResult.builder().index(index).status("FAILED").error(error).build();
+    }
+}
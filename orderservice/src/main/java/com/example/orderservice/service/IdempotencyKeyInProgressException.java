@@ -0,0 +1,8 @@
+package com.example.orderservice.service;
+
+// the first request with this Idempotency-Key has not finished yet
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with Idempotency-Key " + key + " is still in progress");
+    }
+}
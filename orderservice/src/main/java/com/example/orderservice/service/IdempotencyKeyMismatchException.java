@@ -0,0 +1,8 @@
+package com.example.orderservice.service;
+
+// the Idempotency-Key was already used with a different request body
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String key) {
+        super("Idempotency-Key " + key + " was used with a different request");
+    }
+}
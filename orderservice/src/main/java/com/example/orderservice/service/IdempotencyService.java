@@ -0,0 +1,253 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.IdempotencyProperties;
+import com.example.orderservice.domain.IdempotencyRecord;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Dedup store behind the Idempotency-Key header of POST /api/orders.
+ * Completed responses live in a bounded in-memory LRU backed by the order_idempotency_keys table,
+ * so a repeat gets the original response without another product lookup or stock reservation.
+ * Concurrent duplicates on one instance share the first request's result; across instances the
+ * table row claimed up front makes the loser answer 409 until the first request has finished.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, TransactionTemplate transactionTemplate,
+                              IdempotencyProperties properties, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getRetention())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "orderIdempotency");
+        this.replays = meterRegistry.counter("order.idempotency.replayed");
+    }
+
+    private record StoredResponse(String requestHash, int status, OrderDTO body) {}
+
+    private record InFlight(String requestHash, CompletableFuture<ResponseEntity<OrderDTO>> result) {}
+
+    /**
+     * Run {@code action} once per key. Repeats with the same request body get the stored response
+     * with {@value #REPLAYED_HEADER}: true; a different body under the same key is rejected.
+     * 5xx outcomes, exceptions and FAILED orders (the circuit-breaker fallback) are not stored, so the client
+     * may retry those with the same key.
+     */
+    public ResponseEntity<OrderDTO> execute(String key, Object request, Supplier<ResponseEntity<OrderDTO>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String hash = hash(request);
+        StoredResponse done = findCompleted(key);
+        if (done != null) return replay(key, hash, done);
+
+        InFlight mine = new InFlight(hash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) return awaitFirst(key, hash, running);
+        try {
+            ResponseEntity<OrderDTO> response = runFirst(key, hash, action);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private ResponseEntity<OrderDTO> runFirst(String key, String hash, Supplier<ResponseEntity<OrderDTO>> action) {
+        // a previous first request may have completed between the lookup and registering ourselves
+        StoredResponse done = findCompleted(key);
+        if (done != null) return replay(key, hash, done);
+
+        if (!claim(key, hash)) {
+            // another instance owns the key
+            IdempotencyRecord other = repository.findById(key).orElse(null);
+            if (other != null && !other.getRequestHash().equals(hash)) {
+                throw new IdempotencyKeyMismatchException(key);
+            }
+            done = findCompleted(key);
+            if (done != null) return replay(key, hash, done);
+            throw new IdempotencyKeyInProgressException(key);
+        }
+
+        ResponseEntity<OrderDTO> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        if (!storable(response)) {
+            release(key);
+        } else {
+            store(key, new StoredResponse(hash, response.getStatusCode().value(), response.getBody()));
+        }
+        return response;
+    }
+
+    private ResponseEntity<OrderDTO> awaitFirst(String key, String hash, InFlight running) {
+        if (!running.requestHash().equals(hash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        try {
+            ResponseEntity<OrderDTO> response = running.result()
+                    .get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (!storable(response)) {
+                return response; // not stored, nothing to replay
+            }
+            replays.increment();
+            return ResponseEntity.status(response.getStatusCode()).header(REPLAYED_HEADER, "true")
+                    .body(response.getBody());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    // a FAILED order comes from the fallback while product-service is unavailable: transient, like a 5xx
+    private static boolean storable(ResponseEntity<OrderDTO> response) {
+        if (response.getStatusCode().is5xxServerError()) return false;
+        OrderDTO body = response.getBody();
+        return body == null || !"FAILED".equals(body.getStatus());
+    }
+
+    private ResponseEntity<OrderDTO> replay(String key, String hash, StoredResponse done) {
+        if (!done.requestHash().equals(hash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        replays.increment();
+        return ResponseEntity.status(done.status()).header(REPLAYED_HEADER, "true").body(done.body());
+    }
+
+    // LRU first, then the table (restart, eviction, or a key completed on another instance)
+    private StoredResponse findCompleted(String key) {
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) return cached;
+        IdempotencyRecord row = repository.findById(key).orElse(null);
+        if (row == null || row.getHttpStatus() == null
+                || row.getCompletedAt().isBefore(Instant.now().minus(properties.getRetention()))) {
+            return null;
+        }
+        StoredResponse stored = new StoredResponse(row.getRequestHash(), row.getHttpStatus(), fromJson(row.getResponseBody()));
+        completed.put(key, stored);
+        return stored;
+    }
+
+    private boolean claim(String key, String hash) {
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(s -> repository.claim(key, hash, now));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // take over a claim whose owner died before finishing, otherwise the key is taken
+            Integer released = transactionTemplate.execute(
+                    s -> repository.releaseStaleClaim(key, now.minus(properties.getClaimTimeout())));
+            if (released == null || released == 0) return false;
+            try {
+                transactionTemplate.executeWithoutResult(s -> repository.claim(key, hash, now));
+                return true;
+            } catch (DataIntegrityViolationException again) {
+                return false;
+            }
+        }
+    }
+
+    private void release(String key) {
+        try {
+            transactionTemplate.executeWithoutResult(s -> repository.releaseClaim(key));
+        } catch (RuntimeException e) {
+            // the claim expires after claim-timeout anyway
+            log.warn("Could not release idempotency claim {}: {}", key, e.toString());
+        }
+    }
+
+    private void store(String key, StoredResponse response) {
+        completed.put(key, response);
+        try {
+            String body = response.body() == null ? null : objectMapper.writeValueAsString(response.body());
+            transactionTemplate.executeWithoutResult(
+                    s -> repository.complete(key, response.status(), body, Instant.now()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // the order is placed; this instance still replays it from memory
+            log.warn("Could not persist idempotency key {}: {}", key, e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        Integer purged = transactionTemplate.execute(s -> repository.purge(
+                now.minus(properties.getRetention()), now.minus(properties.getClaimTimeout())));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} idempotency keys", purged);
+        }
+    }
+
+    private OrderDTO fromJson(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.service;
+
+// not enough stock for an order line, or product-service refused the reservation; answered with 409
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
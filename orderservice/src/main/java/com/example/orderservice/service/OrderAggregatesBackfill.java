@@ -0,0 +1,59 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.DailyRevenue;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seeds user_order_stats and daily_revenue from the orders table when both are empty but orders
+ * exist (a database from before the aggregates). From then on OrderAggregateWriter keeps them
+ * current, so on every later start this does nothing.
+ * <p>
+ * Runs while the context is being built: after Hibernate has created the tables, and before
+ * OrderAggregateWriter (which depends on this bean) exists. Nothing can place, project or
+ * dispatch an order until the backfill is done, so no order is counted twice.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class OrderAggregatesBackfill {
+
+    private static final String FILL_USERS =
+            "insert into user_order_stats (user_id, order_count, placed_count, failed_count, placed_amount)"
+                    + " select user_id, count(*),"
+                    + " sum(case when status = 'PLACED' then 1 else 0 end),"
+                    + " sum(case when status = 'FAILED' then 1 else 0 end),"
+                    + " sum(case when status = 'PLACED' then total_amount else 0 end)"
+                    + " from orders where user_id is not null group by user_id";
+    private static final String FILL_DAYS =
+            "insert into daily_revenue (order_day, slot, order_count, placed_count, revenue)"
+                    + " select d, s, count(*), sum(p), sum(a) from (select cast(created_at at time zone 'UTC' as date) d,"
+                    + " mod(id, " + DailyRevenue.SLOTS + ") s,"
+                    + " case when status = 'PLACED' then 1 else 0 end p,"
+                    + " case when status = 'PLACED' then total_amount else 0 end a"
+                    + " from orders where created_at is not null) group by d, s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        boolean empty = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select not exists (select 1 from user_order_stats) and not exists (select 1 from daily_revenue)"
+                        + " and exists (select 1 from orders)", Boolean.class));
+        if (!empty) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(s -> {
+            int users = jdbcTemplate.update(FILL_USERS);
+            int days = jdbcTemplate.update(FILL_DAYS);
+            log.info("Backfilled order aggregates: {} user row(s), {} day slot row(s)", users, days);
+        });
+    }
+}
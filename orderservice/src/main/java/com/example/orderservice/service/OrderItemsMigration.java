@@ -0,0 +1,92 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off move from the itemsJson blob layout to the order_items table.
+ * <ul>
+ *   <li>realigns orders_seq past ids handed out by the old IDENTITY column</li>
+ *   <li>converts legacy rows in batches, one transaction per batch, until none are left</li>
+ * </ul>
+ * Safe to run on every start: once no legacy rows remain it does nothing, and in particular
+ * no longer touches the sequence.
+ * Until a row is converted OrderService still reads its items from the blob.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderItemsMigration implements ApplicationRunner {
+
+    private static final int BATCH = 500;
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (orderRepository.findLegacyJsonOrders(PageRequest.of(0, 1)).isEmpty()) {
+            return; // nothing left in the old layout
+        }
+        realignSequence();
+        int migrated = 0;
+        int converted;
+        do {
+            converted = transactionTemplate.execute(status -> migrateBatch());
+            migrated += converted;
+        } while (converted == BATCH);
+        if (migrated > 0) {
+            log.info("Migrated {} orders from itemsJson to order_items", migrated);
+        }
+    }
+
+    private void realignSequence() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from orders", Long.class);
+        if (maxId != null) {
+            // leave a full allocation block of headroom for the pooled optimizer
+            jdbcTemplate.execute("alter sequence orders_seq restart with " + (maxId + 100));
+        }
+    }
+
+    private int migrateBatch() {
+        List<OrderEntity> legacy = orderRepository.findLegacyJsonOrders(PageRequest.of(0, BATCH));
+        for (OrderEntity order : legacy) {
+            if (order.getItems().isEmpty()) {
+                for (OrderItemDTO item : readItems(order.getItemsJson())) {
+                    order.addItem(OrderItem.builder()
+                            .productId(item.getProductId())
+                            .quantity(item.getQuantity())
+                            .price(item.getPrice())
+                            .build());
+                }
+            }
+            order.setItemsJson(null);
+        }
+        orderRepository.saveAll(legacy);
+        return legacy.size();
+    }
+
+    private OrderItemDTO[] readItems(String json) {
+        try {
+            return objectMapper.readValue(json, OrderItemDTO[].class);
+        } catch (Exception e) {
+            log.warn("Unreadable itemsJson, order migrated without lines: {}", e.getMessage());
+            return new OrderItemDTO[0];
+        }
+    }
+}
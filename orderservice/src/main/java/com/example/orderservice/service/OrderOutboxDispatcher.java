@@ -0,0 +1,208 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.config.OrderAsyncProperties;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.domain.OrderOutbox;
+import com.example.orderservice.repository.OrderAggregateWriter;
+import com.example.orderservice.repository.OrderItemRepository;
+import com.example.orderservice.repository.OrderOutboxRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationItem;
+import com.example.productcontract.StockReservationRequest;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background half of the asynchronous order pipeline.
+ * Claims due outbox entries, prices all their orders with one product lookup, reserves stock
+ * per order and moves each order from PENDING to PLACED or FAILED. No DB transaction is held
+ * open across the remote calls.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxDispatcher {
+
+    private static final String PRODUCT_CB = "productServiceCB";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderAggregateWriter aggregateWriter;
+    private final ProductLookupService productLookupService;
+    private final ProductClient productClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderAsyncProperties properties;
+
+    @Scheduled(fixedDelayString = "${order.async.poll-interval-ms:500}")
+    public void poll() {
+        if (properties.isDispatcherEnabled()) {
+            dispatch();
+        }
+    }
+
+    /** Process one batch of due outbox entries; returns how many were claimed. */
+    public int dispatch() {
+        List<OrderOutbox> claimed = claimBatch();
+        if (claimed.isEmpty()) return 0;
+
+        Map<Long, OrderEntity> orders = orderRepository.findWithItemsByIdIn(
+                        claimed.stream().map(OrderOutbox::getOrderId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PRODUCT_CB);
+        Set<Long> productIds = orders.values().stream()
+                .flatMap(o -> o.getItems().stream())
+                .map(OrderItem::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, ProductSummary> products;
+        try {
+            // one lookup for every product in the batch
+            products = productIds.isEmpty() ? Map.of()
+                    : circuitBreaker.executeSupplier(() -> productLookupService.findProducts(productIds));
+        } catch (Exception e) {
+            claimed.forEach(entry -> retryLater(entry, orders.get(entry.getOrderId()), e));
+            return claimed.size();
+        }
+
+        for (OrderOutbox entry : claimed) {
+            process(entry, orders.get(entry.getOrderId()), products, circuitBreaker);
+        }
+        return claimed.size();
+    }
+
+    private List<OrderOutbox> claimBatch() {
+        Instant now = Instant.now();
+        List<OrderOutbox> candidates = outboxRepository.findDispatchable(
+                now, now.minus(properties.getClaimTimeout()), PageRequest.of(0, properties.getBatchSize()));
+        List<OrderOutbox> claimed = new ArrayList<>();
+        for (OrderOutbox candidate : candidates) {
+            Integer won = transactionTemplate.execute(
+                    s -> outboxRepository.claim(candidate.getId(), candidate.getVersion(), now));
+            if (won != null && won == 1) {
+                candidate.setVersion(candidate.getVersion() + 1);
+                claimed.add(candidate);
+            }
+        }
+        return claimed;
+    }
+
+    private void process(OrderOutbox entry, OrderEntity order, Map<Long, ProductSummary> products,
+                         CircuitBreaker circuitBreaker) {
+        if (order == null || !"PENDING".equals(order.getStatus())) {
+            complete(entry, null, null, 0.0); // order gone or already settled
+            return;
+        }
+
+        double total = 0.0;
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            ProductSummary product = products.get(item.getProductId());
+            if (product == null) {
+                complete(entry, order, "FAILED", 0.0);
+                return;
+            }
+            double price = product.getPrice();
+            item.setPrice(price); // snapshot price
+            total += price * item.getQuantity();
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<StockReservationItem> reservation = requested.entrySet().stream()
+                .map(e -> new StockReservationItem(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        Map<String, String> reserved;
+        try {
+            reserved = circuitBreaker.executeSupplier(
+                    () -> productClient.reserveStock(new StockReservationRequest(reservation)));
+        } catch (FeignException e) {
+            if (e.status() >= 400 && e.status() < 500) {
+                // business rejection (insufficient stock, unknown product): retrying won't help
+                complete(entry, order, "FAILED", 0.0);
+            } else {
+                retryLater(entry, order, e);
+            }
+            return;
+        } catch (Exception e) {
+            retryLater(entry, order, e);
+            return;
+        }
+
+        boolean placed = false;
+        try {
+            placed = complete(entry, order, "PLACED", total);
+        } finally {
+            // lost the claim to another dispatcher, or the order was settled meanwhile: the stock isn't ours to keep
+            if (!placed) release(reserved == null ? null : reserved.get("reservationId"));
+        }
+    }
+
+    /**
+     * Settle the entry and its order in one transaction. Both updates are conditional: the outbox row on
+     * the version of this dispatcher's claim, the order on still being PENDING. Returns false when the claim
+     * was taken over (nothing is written) or the order had already moved on (only the entry is closed).
+     */
+    private boolean complete(OrderOutbox entry, OrderEntity order, String status, double total) {
+        Boolean settled = transactionTemplate.execute(s -> {
+            if (outboxRepository.complete(entry.getId(), entry.getVersion(), entry.getAttempts()) == 0) {
+                log.info("Outbox entry {} was reclaimed by another dispatcher; leaving it", entry.getId());
+                return false;
+            }
+            if (order == null) return true;
+            if (orderRepository.settlePending(order.getId(), status, total) == 0) return false;
+            String previousStatus = order.getStatus();
+            double previousTotal = order.getTotalAmount();
+            order.setStatus(status);
+            order.setTotalAmount(total);
+            order.getItems().forEach(item -> orderItemRepository.updatePrice(item.getId(), item.getPrice()));
+            aggregateWriter.statusChanged(order, previousStatus, previousTotal);
+            return true;
+        });
+        return Boolean.TRUE.equals(settled);
+    }
+
+    private void release(String reservationId) {
+        if (reservationId == null) return;
+        try {
+            productClient.releaseReservation(reservationId);
+        } catch (Exception e) {
+            log.error("Could not release stock reservation {}", reservationId, e);
+        }
+    }
+
+    private void retryLater(OrderOutbox entry, OrderEntity order, Exception cause) {
+        int attempts = entry.getAttempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            log.warn("Order {} failed after {} attempts: {}", entry.getOrderId(), attempts, cause.getMessage());
+            entry.setAttempts(attempts);
+            complete(entry, order != null && "PENDING".equals(order.getStatus()) ? order : null, "FAILED", 0.0);
+            return;
+        }
+        long backoffMs = properties.getRetryBackoff().toMillis() << (attempts - 1);
+        // 0 rows means another dispatcher has reclaimed the entry and owns it now
+        transactionTemplate.execute(s -> outboxRepository.reschedule(entry.getId(), entry.getVersion(), attempts,
+                Instant.now().plusMillis(backoffMs), truncate(cause.getMessage())));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
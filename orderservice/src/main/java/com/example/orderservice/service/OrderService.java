@@ -1,31 +1,67 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.client.ConcurrencyLimitExceededException;
 import com.example.orderservice.client.ProductClient;
 import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.domain.OrderOutbox;
 import com.example.orderservice.dto.OrderDTO;
 import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.OrderStatusDTO;
 import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.orderlog.OrderLogService;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.orderservice.repository.OrderItemRepository;
+import com.example.orderservice.repository.OrderOutboxRepository;
 import com.example.orderservice.repository.OrderRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationItem;
+import com.example.productcontract.StockReservationRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
-    private final ObjectMapper objectMapper = new ObjectMapper(); // for items JSON
+    private final ProductLookupService productLookupService;
+    private final EntityManager entityManager;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    // present only with order.log.enabled=true
+    private final ObjectProvider<OrderLogService> orderLog;
+    private final ObjectMapper objectMapper = new ObjectMapper(); // NDJSON export + legacy items JSON
 
     private static final String PRODUCT_CB = "productServiceCB";
+    private static final int EXPORT_CHUNK = 500;
+    // open upper bound for searches without "to"
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
 
     /**
      * Place order: validate product stock via product-service and reduce stock.
@@ -37,85 +73,238 @@ public class OrderService {
         // 1) Validate and compute total
         double total = 0.0;
 
-        // For each item, check product price and stock
+        // Fetch every product in the cart (batch call or parallel fan-out, see ProductLookupService)
+        Map<Long, ProductSummary> products = productLookupService.findProducts(
+                req.getItems().stream().map(OrderItemDTO::getProductId).collect(Collectors.toList()));
+
+        // Sum quantities per product so repeated lines are checked against stock together
+        Map<Long, Integer> requested = new HashMap<>();
+        for (OrderItemDTO item : req.getItems()) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
         for (OrderItemDTO item : req.getItems()) {
-            Map<String, Object> product = productClient.getProductById(item.getProductId());
-            if (product == null || product.isEmpty()) {
-                throw new IllegalArgumentException("Product not found: " + item.getProductId());
+            ProductSummary product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException(item.getProductId());
             }
-            // read price and stock carefully (product-service returns "price" & "stock")
-            double price = ((Number) product.getOrDefault("price", 0)).doubleValue();
-            int stock = ((Number) product.getOrDefault("stock", 0)).intValue();
-            if (stock < item.getQuantity()) {
-                throw new IllegalStateException("Insufficient stock for product " + item.getProductId());
+            double price = product.getPrice();
+            // near-cached products carry no stock; the reservation below is the authoritative check
+            Integer stock = product.getStock();
+            if (stock != null && stock < requested.get(item.getProductId())) {
+                throw new InsufficientStockException("Insufficient stock for product " + item.getProductId());
             }
             total += price * item.getQuantity();
             item.setPrice(price); // snapshot price
         }
 
-        // 2) Persist order with status PLACED (we'll mark as PLACED and then reduce stock)
+        // 2) Reserve stock for the whole order in one all-or-nothing call (could be async / event-driven)
+        List<StockReservationItem> reservation = requested.entrySet().stream()
+                .map(e -> new StockReservationItem(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        Map<String, String> resp;
+        try {
+            resp = productClient.reserveStock(new StockReservationRequest(reservation));
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Stock reservation rejected for order");
+        }
+        // basic check
+        if (resp == null || !"OK".equalsIgnoreCase(resp.getOrDefault("status","OK"))) {
+            throw new IllegalStateException("Failed to reserve stock for order");
+        }
+
+        // 3) Persist order with status PLACED (a JPA insert is only flushed at commit anyway)
         OrderEntity order = OrderEntity.builder()
                 .userId(req.getUserId())
                 .totalAmount(total)
                 .status("PLACED")
                 .createdAt(Instant.now())
-                .itemsJson(writeItemsJson(req.getItems()))
                 .build();
+        addItems(order, req.getItems());
+        try {
+            return persist(order);
+        } catch (RuntimeException e) {
+            // the stock is held for an order that does not exist; give it back before the fallback records it FAILED
+            release(resp.get("reservationId"));
+            throw e;
+        }
+    }
 
-        OrderEntity saved = orderRepository.save(order);
-
-        // 3) Reduce stock by calling product-service for each item (could be async / event-driven)
-        for (OrderItemDTO item : req.getItems()) {
-            Map<String, String> resp = productClient.reduceStock(item.getProductId(), item.getQuantity());
-            // basic check
-            if (resp == null || !"OK".equalsIgnoreCase(resp.getOrDefault("status","OK"))) {
-                // If reduce fails, we could throw and let transaction rollback
-                throw new IllegalStateException("Failed to reduce stock for product " + item.getProductId());
-            }
+    private void release(String reservationId) {
+        if (reservationId == null) return;
+        try {
+            productClient.releaseReservation(reservationId);
+        } catch (Exception e) {
+            log.error("Could not release stock reservation {}", reservationId, e);
         }
+    }
+
+    // the order log when enabled (durable append, projected into the table in batches), else a direct insert;
+    // the fallback calls this outside placeOrder's transaction, hence the template
+    private OrderDTO persist(OrderEntity order) {
+        OrderLogService log = orderLog.getIfAvailable();
+        return log != null ? log.append(order) : transactionTemplate.execute(s -> toDto(save(order)));
+    }
+
+    // JDBC insert of the order plus one batch for its lines and the aggregate update, in the caller's
+    // transaction; going through JPA costs a persist, flush and dirty check for every line
+    private OrderEntity save(OrderEntity order) {
+        batchWriter.insertAll(List.of(order));
+        return order;
+    }
 
+    /**
+     * Asynchronous placement: persist the order as PENDING together with an outbox entry and return
+     * immediately. Pricing and stock reservation happen later in OrderOutboxDispatcher.
+     */
+    @Transactional
+    public OrderDTO submitOrder(PlaceOrderRequest req) {
+        OrderEntity order = OrderEntity.builder()
+                .userId(req.getUserId())
+                .totalAmount(0.0)
+                .status("PENDING")
+                .createdAt(Instant.now())
+                .build();
+        addItems(order, req.getItems());
+        OrderEntity saved = save(order);
+
+        outboxRepository.save(OrderOutbox.builder()
+                .orderId(saved.getId())
+                .status("NEW")
+                .availableAt(saved.getCreatedAt())
+                .createdAt(saved.getCreatedAt())
+                .build());
         return toDto(saved);
     }
 
+    public Optional<OrderStatusDTO> findStatus(Long id) {
+        return orderRepository.findById(id)
+                .map(o -> new OrderStatusDTO(o.getId(), o.getStatus(), o.getTotalAmount()))
+                .or(() -> findPending(id).map(o -> new OrderStatusDTO(o.getId(), o.getStatus(), o.getTotalAmount())));
+    }
+
+    // logged but not yet projected into the orders table
+    private Optional<OrderDTO> findPending(Long id) {
+        OrderLogService log = orderLog.getIfAvailable();
+        return log == null ? Optional.empty() : log.findPending(id);
+    }
+
     // fallback for circuit breaker
     public OrderDTO placeOrderFallback(PlaceOrderRequest req, Throwable t) {
+        // business rejections are the caller's answer (400/409), not a product-service outage
+        if (t instanceof ProductNotFoundException e) throw e;
+        if (t instanceof InsufficientStockException e) throw e;
+        // shed locally under overload: storing a FAILED order would add writes exactly when load is shed
+        if (t instanceof BulkheadFullException e) throw e;
+        if (t instanceof ConcurrencyLimitExceededException e) throw e;
         // Simple fallback: save an order with FAILED status and return it
         OrderEntity failed = OrderEntity.builder()
                 .userId(req.getUserId())
                 .totalAmount(0.0)
                 .status("FAILED")
                 .createdAt(Instant.now())
-                .itemsJson(writeItemsJson(req.getItems()))
                 .build();
-        OrderEntity saved = orderRepository.save(failed);
-        return toDto(saved);
+        addItems(failed, req.getItems());
+        return persist(failed);
     }
 
-    private String writeItemsJson(List<OrderItemDTO> items) {
-        try {
-            return objectMapper.writeValueAsString(items);
-        } catch (JsonProcessingException e) {
-            return "[]";
+    void addItems(OrderEntity order, List<OrderItemDTO> items) {
+        for (OrderItemDTO item : items) {
+            order.addItem(OrderItem.builder()
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .price(item.getPrice())
+                    .build());
         }
     }
 
     public Optional<OrderDTO> findById(Long id) {
-        return orderRepository.findById(id).map(this::toDto);
+        return orderRepository.findWithItemsById(id).map(this::toDto).or(() -> findPending(id));
     }
 
-    public List<OrderDTO> findAll() {
-        return orderRepository.findAll()
+    // page of order ids first, then one fetch-join query for those orders and their lines
+    public Page<OrderDTO> findAll(int page, int size) {
+        Page<OrderEntity> orders = orderRepository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        if (orders.isEmpty()) return orders.map(this::toDto);
+        Map<Long, OrderEntity> withItems = orderRepository.findWithItemsByIdIn(
+                        orders.map(OrderEntity::getId).getContent())
                 .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(OrderEntity::getId, o -> o));
+        return orders.map(o -> toDto(withItems.getOrDefault(o.getId(), o)));
+    }
+
+    /**
+     * Orders of a user and/or in a status, created in [from, to), newest first. Any of the filters may
+     * be null; each combination maps to a query on one of the orders indexes.
+     */
+    public Slice<OrderDTO> search(Long userId, String status, Instant from, Instant to, int page, int size) {
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : END_OF_TIME;
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<OrderEntity> orders;
+        if (userId != null && status != null) {
+            orders = orderRepository.findByUserAndStatus(userId, status, start, end, pageable);
+        } else if (userId != null) {
+            orders = orderRepository.findByUser(userId, start, end, pageable);
+        } else if (status != null) {
+            orders = orderRepository.findByStatus(status, start, end, pageable);
+        } else {
+            orders = orderRepository.findByCreatedAt(start, end, pageable);
+        }
+        if (orders.isEmpty()) return orders.map(this::toDto);
+        Map<Long, OrderEntity> withItems = orderRepository.findWithItemsByIdIn(
+                        orders.map(OrderEntity::getId).getContent())
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getId, o -> o));
+        return orders.map(o -> toDto(withItems.getOrDefault(o.getId(), o)));
     }
 
-    private OrderDTO toDto(OrderEntity e) {
+    /**
+     * Write every order as one JSON line. Orders come from a fetch-size bounded cursor and their
+     * lines are loaded per chunk with one query; each chunk is detached once written, so heap
+     * stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<OrderEntity> orders = orderRepository.streamAll()) {
+            Iterator<OrderEntity> it = orders.iterator();
+            List<OrderEntity> chunk = new ArrayList<>(EXPORT_CHUNK);
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == EXPORT_CHUNK || !it.hasNext()) {
+                    writeChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private void writeChunk(List<OrderEntity> chunk, OutputStream out) throws IOException {
+        Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository
+                .findByOrderIds(chunk.stream().map(OrderEntity::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(i -> i.getOrder().getId()));
+        for (OrderEntity e : chunk) {
+            out.write(objectMapper.writeValueAsBytes(toDto(e, itemsByOrder.getOrDefault(e.getId(), List.of()))));
+            out.write('\n');
+        }
+        entityManager.clear();
+    }
+
+    OrderDTO toDto(OrderEntity e) {
+        return toDto(e, e.getItems());
+    }
+
+    private OrderDTO toDto(OrderEntity e, List<OrderItem> lines) {
         List<OrderItemDTO> items;
-        try {
-            items = Arrays.asList(objectMapper.readValue(e.getItemsJson(), OrderItemDTO[].class));
-        } catch (Exception ex) {
-            items = Collections.emptyList();
+        if (lines.isEmpty() && e.getItemsJson() != null) {
+            // row not yet migrated from the JSON blob layout
+            items = readLegacyItems(e.getItemsJson());
+        } else {
+            items = lines.stream()
+                    .map(i -> new OrderItemDTO(i.getProductId(), i.getQuantity(), i.getPrice()))
+                    .collect(Collectors.toList());
         }
         return OrderDTO.builder()
                 .id(e.getId())
@@ -125,4 +314,12 @@ public class OrderService {
                 .status(e.getStatus())
                 .build();
     }
+
+    private List<OrderItemDTO> readLegacyItems(String json) {
+        try {
+            return Arrays.asList(objectMapper.readValue(json, OrderItemDTO[].class));
+        } catch (Exception ex) {
+            return Collections.emptyList();
+        }
+    }
 }
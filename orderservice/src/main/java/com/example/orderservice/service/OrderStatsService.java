@@ -0,0 +1,45 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.DailyRevenueDTO;
+import com.example.orderservice.dto.UserOrderStatsDTO;
+import com.example.orderservice.repository.DailyRevenueRepository;
+import com.example.orderservice.repository.UserOrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard reads from the aggregate tables: a user's totals are one row, a day's revenue
+ * a handful of slot rows, however many orders there are.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    private final UserOrderStatsRepository userStatsRepository;
+    private final DailyRevenueRepository dailyRevenueRepository;
+
+    // a user without orders gets all zeros
+    public UserOrderStatsDTO userStats(Long userId) {
+        return userStatsRepository.findById(userId)
+                .map(s -> UserOrderStatsDTO.builder()
+                        .userId(userId)
+                        .orderCount(s.getOrderCount())
+                        .placedCount(s.getPlacedCount())
+                        .failedCount(s.getFailedCount())
+                        .pendingCount(s.getOrderCount() - s.getPlacedCount() - s.getFailedCount())
+                        .placedAmount(s.getPlacedAmount())
+                        .build())
+                .orElseGet(() -> UserOrderStatsDTO.builder().userId(userId).build());
+    }
+
+    /** Days (UTC) in [from, to], both inclusive, that have orders. */
+    public List<DailyRevenueDTO> revenueByDay(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        return dailyRevenueRepository.sumByDay(from, to);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductCatalogCache;
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.config.ProductLookupProperties;
+import com.example.productcontract.ProductSummary;
+import feign.FeignException;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the products of a cart against product-service.
+ * The strategy (batch, parallel fan-out or sequential) is chosen by {@link ProductLookupProperties}.
+ * Every lookup is a read, so transient failures are retried (resilience4j {@code productLookup},
+ * exponential backoff with jitter) for as long as the per-order deadline allows.
+ */
+@Service
+public class ProductLookupService {
+
+    private final ProductClient productClient;
+    private final ProductLookupProperties properties;
+    private final ProductCatalogCache catalogCache;
+    private final ThreadPoolExecutor executor;
+    private final Retry retry;
+    private final TimeLimiter timeLimiter;
+
+    public ProductLookupService(ProductClient productClient, ProductLookupProperties properties,
+                                ProductCatalogCache catalogCache, RetryRegistry retryRegistry,
+                                TimeLimiterRegistry timeLimiterRegistry) {
+        this.productClient = productClient;
+        this.properties = properties;
+        this.catalogCache = catalogCache;
+        this.retry = retryRegistry.retry("productLookup");
+        // the per-order deadline is the time limit of a parallel fan-out
+        this.timeLimiter = timeLimiterRegistry.timeLimiter("productLookup", TimeLimiterConfig.custom()
+                .timeoutDuration(properties.getDeadline())
+                .cancelRunningFuture(true)
+                .build());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getParallelism(),
+                properties.getParallelism(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "product-lookup-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // a full queue rejects; fetchParallel then falls back to one batch call
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Fetch the given products keyed by id, serving hot products from the near-cache.
+     * Unknown ids are absent from the result in every mode.
+     * Cached entries carry no stock: reservation is the authoritative stock check.
+     */
+    public Map<Long, ProductSummary> findProducts(Collection<Long> ids) {
+        return catalogCache.getAll(new LinkedHashSet<>(ids), this::fetch);
+    }
+
+    private Map<Long, ProductSummary> fetch(Set<Long> distinct) {
+        long deadlineNanos = System.nanoTime() + properties.getDeadline().toNanos();
+        return switch (properties.getMode()) {
+            case BATCH -> withRetry(deadlineNanos, () -> fetchBatch(distinct));
+            case PARALLEL -> fetchParallel(distinct, deadlineNanos);
+            case SEQUENTIAL -> fetchSequential(distinct, deadlineNanos);
+        };
+    }
+
+    private Map<Long, ProductSummary> fetchBatch(Set<Long> ids) {
+        List<ProductSummary> found = productClient.getProductSummaries(ids);
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        if (found != null) {
+            for (ProductSummary product : found) {
+                if (product.getId() != null) {
+                    byId.put(product.getId(), product);
+                }
+            }
+        }
+        return byId;
+    }
+
+    private Map<Long, ProductSummary> fetchSequential(Set<Long> ids, long deadlineNanos) {
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        for (Long id : ids) {
+            ProductSummary product = fetchOne(id, deadlineNanos);
+            if (product != null) {
+                byId.put(id, product);
+            }
+        }
+        return byId;
+    }
+
+    private Map<Long, ProductSummary> fetchParallel(Set<Long> ids, long deadlineNanos) {
+        Map<Long, CompletableFuture<ProductSummary>> futures = new LinkedHashMap<>();
+        try {
+            for (Long id : ids) {
+                futures.put(id, CompletableFuture.supplyAsync(
+                        () -> fetchOne(id, deadlineNanos), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // pool saturated: one bounded batch round trip instead of queueing more work or running the fan-out
+            // on the order thread
+            futures.values().forEach(f -> f.cancel(true));
+            return withRetry(deadlineNanos, () -> fetchBatch(ids));
+        }
+        try {
+            timeLimiter.executeFutureSupplier(() -> CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])));
+        } catch (TimeoutException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            throw deadlineExceeded();
+        } catch (InterruptedException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while looking up products", e);
+        } catch (RuntimeException e) {
+            // the time limiter rethrows the client's own exception so the circuit breaker sees the real failure
+            futures.values().forEach(f -> f.cancel(true));
+            throw e;
+        } catch (Exception e) {
+            futures.values().forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Product lookup failed", e);
+        }
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        futures.forEach((id, f) -> {
+            ProductSummary product = f.join();
+            if (product != null) {
+                byId.put(id, product);
+            }
+        });
+        return byId;
+    }
+
+    // a 404 means the product does not exist: leave it out, as the batch endpoint does
+    private ProductSummary fetchOne(Long id, long deadlineNanos) {
+        try {
+            return withRetry(deadlineNanos, () -> productClient.getProductSummary(id));
+        } catch (FeignException.NotFound e) {
+            return null;
+        }
+    }
+
+    // retried attempts only start while there is deadline left; the first attempt always runs
+    private <T> T withRetry(long deadlineNanos, Supplier<T> call) {
+        AtomicInteger attempt = new AtomicInteger();
+        return retry.executeSupplier(() -> {
+            if (attempt.getAndIncrement() > 0 && System.nanoTime() - deadlineNanos > 0) {
+                throw deadlineExceeded();
+            }
+            return call.get();
+        });
+    }
+
+    private IllegalStateException deadlineExceeded() {
+        return new IllegalStateException("Product lookup exceeded deadline of " + properties.getDeadline());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.service;
+
+// an order line names a product that product-service doesn't know; answered with 400
+public class ProductNotFoundException extends RuntimeException {
+    public ProductNotFoundException(Long productId) {
+        super("Product not found: " + productId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ProductConcurrencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(20).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void slowCallsShrinkTheLimitAndExcessCallsAreShed() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int i = 0; i < 30; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onSuccess(SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void fastCallsUnderLoadGrowTheLimitUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int round = 0; round < 2_000; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) acquired++;
+            for (int i = 0; i < acquired; i++) limiter.onSuccess(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(50);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void idleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(new ProductConcurrencyProperties(), new SimpleMeterRegistry());
+    }
+}
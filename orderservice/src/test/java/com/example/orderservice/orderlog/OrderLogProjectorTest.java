@@ -0,0 +1,119 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.config.OrderLogProperties;
+import com.example.orderservice.domain.OrderEntity;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.orderservice.repository.OrderIdAllocator;
+import com.example.orderservice.repository.OrderLogCheckpointRepository;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "order.product-changes.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:order-log-test;DB_CLOSE_DELAY=-1"
+})
+class OrderLogProjectorTest {
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    private OrderIdAllocator idAllocator;
+
+    @Autowired
+    private OrderBatchWriter batchWriter;
+
+    @Autowired
+    private OrderLogCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void ordersLoggedBeforeACrashAreProjectedExactlyOnce() throws Exception {
+        OrderEntity viaJpa = orderRepository.save(jpaOrder());
+
+        OrderLog crashed = new OrderLog(properties());
+        crashed.open(0, entries -> { });
+        for (int i = 0; i < 5; i++) {
+            crashed.append(entry(idAllocator.nextOrderId())).join();
+        }
+        // no projector ran and the log was never closed
+
+        OrderLogProjector first = projector();
+        first.start();
+        awaitOrders(6);
+        first.close();
+        assertThat(jdbc.queryForObject("select count(*) from order_items", Integer.class)).isEqualTo(1 + 5 * 2);
+        assertThat(checkpointRepository.findAll()).singleElement()
+                .satisfies(c -> assertThat(c.getLastLsn()).isEqualTo(5));
+
+        OrderLogProjector second = projector();
+        second.start();
+        assertThat(second.getBacklog()).isZero();
+        second.close();
+        assertThat(orderRepository.count()).isEqualTo(6);
+
+        // JPA inserts after the allocator took a block still get their own ids
+        OrderEntity later = orderRepository.save(jpaOrder());
+        assertThat(later.getId()).isNotEqualTo(viaJpa.getId());
+        assertThat(orderRepository.findWithItemsByIdIn(List.of(later.getId())).get(0).getItems()).hasSize(1);
+        assertThat(orderRepository.count()).isEqualTo(7);
+    }
+
+    private OrderLogProjector projector() {
+        return new OrderLogProjector(new OrderLog(properties()), properties(), batchWriter, checkpointRepository,
+                transactionTemplate);
+    }
+
+    private void awaitOrders(long expected) throws InterruptedException {
+        for (int i = 0; i < 100 && orderRepository.count() < expected; i++) Thread.sleep(50);
+        assertThat(orderRepository.count()).isEqualTo(expected);
+    }
+
+    private OrderLogProperties properties() {
+        OrderLogProperties properties = new OrderLogProperties();
+        properties.setDir(dir.toString());
+        properties.setProjectorIdleWait(Duration.ofMillis(20));
+        return properties;
+    }
+
+    private static OrderEntity jpaOrder() {
+        OrderEntity order = OrderEntity.builder().userId(1L).status("PLACED").totalAmount(1).createdAt(Instant.now()).build();
+        order.addItem(OrderItem.builder().productId(1L).quantity(1).price(1).build());
+        return order;
+    }
+
+    private static OrderLogEntry entry(long orderId) {
+        return OrderLogEntry.builder()
+                .orderId(orderId)
+                .userId(7L)
+                .status("PLACED")
+                .totalAmount(5)
+                .createdAt(Instant.now())
+                .items(List.of(new OrderItemDTO(1L, 1, 2.0), new OrderItemDTO(2L, 1, 3.0)))
+                .build();
+    }
+}
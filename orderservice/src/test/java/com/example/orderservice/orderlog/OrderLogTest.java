@@ -0,0 +1,178 @@
+package com.example.orderservice.orderlog;
+
+import com.example.orderservice.config.OrderLogProperties;
+import com.example.orderservice.dto.OrderItemDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppendsGetConsecutiveLsnsAndSurviveReopen() throws Exception {
+        OrderLog log = new OrderLog(properties(DataSize.ofMegabytes(1)));
+        List<OrderLogEntry> committed = new CopyOnWriteArrayList<>();
+        log.open(0, committed::addAll);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<OrderLogEntry>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            long orderId = i;
+            pool.execute(() -> futures.add(log.append(entry(orderId))));
+        }
+        pool.shutdown();
+        while (futures.size() < 1_000) Thread.sleep(5);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        log.close();
+
+        assertThat(committed).extracting(OrderLogEntry::getLsn)
+                .containsExactlyElementsOf(range(1, 1_000));
+        List<OrderLogEntry> replayed = new ArrayList<>();
+        OrderLog reopened = new OrderLog(properties(DataSize.ofMegabytes(1)));
+        reopened.open(0, replayed::addAll);
+        assertThat(replayed).isEqualTo(committed);
+        assertThat(reopened.lastLsn()).isEqualTo(1_000);
+        reopened.close();
+    }
+
+    @Test
+    void tornTailIsDroppedAndOverwrittenAfterACrash() throws Exception {
+        OrderLog crashed = new OrderLog(properties(DataSize.ofMegabytes(1)));
+        crashed.open(0, entries -> { });
+        long end = 0;
+        for (int i = 1; i <= 10; i++) {
+            OrderLogEntry e = crashed.append(entry(i)).join();
+            end += 8 + e.encode().length;
+        }
+        // no close(): half of an 11th entry made it to the file
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(200);
+            file.writeInt(12345);
+            file.write(new byte[]{1, 2, 3, 4, 5});
+        }
+
+        List<OrderLogEntry> replayed = new ArrayList<>();
+        OrderLog restarted = new OrderLog(properties(DataSize.ofMegabytes(1)));
+        restarted.open(0, replayed::addAll);
+        assertThat(replayed).extracting(OrderLogEntry::getOrderId).containsExactlyElementsOf(range(1, 10));
+        assertThat(restarted.append(entry(11)).join().getLsn()).isEqualTo(11);
+        restarted.close();
+
+        List<OrderLogEntry> again = new ArrayList<>();
+        OrderLog third = new OrderLog(properties(DataSize.ofMegabytes(1)));
+        third.open(0, again::addAll);
+        assertThat(again).extracting(OrderLogEntry::getOrderId).containsExactlyElementsOf(range(1, 11));
+        third.close();
+    }
+
+    @Test
+    void replayStartsAfterTheCheckpointAndProjectedSegmentsAreDeleted() throws Exception {
+        OrderLog log = new OrderLog(properties(DataSize.ofKilobytes(1)));
+        log.open(0, entries -> { });
+        for (int i = 1; i <= 50; i++) log.append(entry(i)).join();
+        log.close();
+        assertThat(segmentCount()).isGreaterThan(3);
+
+        List<OrderLogEntry> replayed = new ArrayList<>();
+        OrderLog reopened = new OrderLog(properties(DataSize.ofKilobytes(1)));
+        reopened.open(30, replayed::addAll);
+        assertThat(replayed).extracting(OrderLogEntry::getLsn).containsExactlyElementsOf(range(31, 50));
+
+        long before = segmentCount();
+        reopened.deleteSegmentsUpTo(30);
+        assertThat(segmentCount()).isLessThan(before);
+        reopened.close();
+        List<OrderLogEntry> remaining = new ArrayList<>();
+        OrderLog afterDelete = new OrderLog(properties(DataSize.ofKilobytes(1)));
+        afterDelete.open(30, remaining::addAll);
+        assertThat(remaining).isEqualTo(replayed);
+        afterDelete.close();
+    }
+
+    @Test
+    void appendsRacingCloseAreEitherWrittenOrFailed() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            Path roundDir = Files.createDirectory(dir.resolve("round-" + round));
+            OrderLog log = new OrderLog(properties(roundDir, DataSize.ofMegabytes(1)));
+            log.open(0, entries -> { });
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<CompletableFuture<OrderLogEntry>> futures = new CopyOnWriteArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                pool.execute(() -> {
+                    for (long orderId = 1; orderId <= 500; orderId++) futures.add(log.append(entry(orderId)));
+                });
+            }
+            log.close();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            // none is left hanging: the caller's join() always returns
+            assertThat(futures).hasSize(2_000).allMatch(CompletableFuture::isDone);
+            List<Long> written = futures.stream().filter(f -> !f.isCompletedExceptionally())
+                    .map(f -> f.join().getLsn()).sorted().toList();
+            List<OrderLogEntry> replayed = new ArrayList<>();
+            OrderLog reopened = new OrderLog(properties(roundDir, DataSize.ofMegabytes(1)));
+            reopened.open(0, replayed::addAll);
+            assertThat(replayed).extracting(OrderLogEntry::getLsn).containsExactlyElementsOf(written);
+            reopened.close();
+        }
+    }
+
+    private OrderLogProperties properties(DataSize segmentSize) {
+        return properties(dir, segmentSize);
+    }
+
+    private OrderLogProperties properties(Path dir, DataSize segmentSize) {
+        OrderLogProperties properties = new OrderLogProperties();
+        properties.setDir(dir.toString());
+        properties.setSegmentSize(segmentSize);
+        return properties;
+    }
+
+    private static OrderLogEntry entry(long orderId) {
+        return OrderLogEntry.builder()
+                .orderId(orderId)
+                .userId(orderId % 7 == 0 ? null : 100 + orderId)
+                .status("PLACED")
+                .totalAmount(orderId * 2.5)
+                .createdAt(Instant.ofEpochSecond(1_700_000_000L + orderId, 123))
+                .items(List.of(new OrderItemDTO(1L, 2, 1.25), new OrderItemDTO(orderId, 1, 0.0)))
+                .build();
+    }
+
+    private static List<Long> range(long from, long to) {
+        return Stream.iterate(from, i -> i <= to, i -> i + 1).collect(Collectors.toList());
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.productcontract.BulkStockReservationRequest;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "order.product-cache.enabled=false",
+        "order.product-changes.enabled=false",
+        "order.bulk.chunk-size=2",
+        "spring.datasource.url=jdbc:h2:mem:bulk-test;DB_CLOSE_DELAY=-1"
+})
+class BulkOrderServiceTest {
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoSpyBean
+    private OrderBatchWriter batchWriter;
+
+    @BeforeEach
+    void products() {
+        orderRepository.deleteAll();
+        when(productClient.getProductSummaries(anyCollection())).thenReturn(List.of(
+                new ProductSummary(1L, "widget", 2.5, 100),
+                new ProductSummary(2L, "gadget", 4.0, 1)));
+        // every reservation that needs product 2 more than once is short
+        when(productClient.reserveStockBulk(any())).thenAnswer(call -> {
+            BulkStockReservationRequest req = call.getArgument(0);
+            List<Boolean> reserved = req.getReservations().stream()
+                    .map(r -> r.getItems().stream().noneMatch(i -> i.getProductId() == 2L && i.getQuantity() > 1))
+                    .toList();
+            return new BulkStockReservationResponse(reserved,
+                    reserved.stream().map(ok -> ok ? "reservation-" + UUID.randomUUID() : null).toList());
+        });
+    }
+
+    @Test
+    void placesReservedOrdersAndReportsTheRestPerOrder() {
+        List<BulkOrderResult> results = new ArrayList<>();
+        bulkOrderService.placeOrders(List.of(
+                order(new OrderItemDTO(1L, 2, 0), new OrderItemDTO(2L, 1, 0)),
+                order(new OrderItemDTO(99L, 1, 0)),
+                order(new OrderItemDTO(2L, 1, 0), new OrderItemDTO(2L, 1, 0)),
+                order(new OrderItemDTO(1L, 4, 0))), results::addAll);
+
+        assertThat(results).extracting(BulkOrderResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(BulkOrderResult::getStatus)
+                .containsExactly("PLACED", "REJECTED", "REJECTED", "PLACED");
+        assertThat(results.get(0).getOrder().getTotalAmount()).isEqualTo(9.0);
+        assertThat(results.get(1).getError()).contains("99");
+
+        // one product lookup for the whole batch, one reservation call per chunk of two
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.captor();
+        verify(productClient, times(1)).getProductSummaries(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 99L);
+        verify(productClient, times(2)).reserveStockBulk(any());
+
+        assertThat(orderRepository.findWithItemsById(results.get(3).getOrder().getId()))
+                .hasValueSatisfying(o -> {
+                    assertThat(o.getStatus()).isEqualTo("PLACED");
+                    assertThat(o.getItems()).singleElement().satisfies(i -> assertThat(i.getPrice()).isEqualTo(2.5));
+                });
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void stockIsReleasedWhenTheOrdersCannotBeStored() {
+        doThrow(new IllegalStateException("db down")).when(batchWriter).insertAll(anyList());
+
+        List<BulkOrderResult> results = new ArrayList<>();
+        bulkOrderService.placeOrders(List.of(order(new OrderItemDTO(1L, 1, 0))), results::addAll);
+
+        assertThat(results).singleElement().satisfies(r -> assertThat(r.getStatus()).isEqualTo("FAILED"));
+        verify(productClient).releaseReservation(startsWith("reservation-"));
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    private static PlaceOrderRequest order(OrderItemDTO... items) {
+        return new PlaceOrderRequest(7L, new ArrayList<>(List.of(items)));
+    }
+}
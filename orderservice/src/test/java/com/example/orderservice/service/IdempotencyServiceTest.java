@@ -0,0 +1,103 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:idempotency-test;DB_CLOSE_DELAY=-1"
+})
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<OrderDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> idempotencyService.execute("key-concurrent", request(3), () -> {
+                    runs.incrementAndGet();
+                    await(release);
+                    return created(7L);
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<OrderDTO>> result : results) {
+                ResponseEntity<OrderDTO> response = result.get(5, TimeUnit.SECONDS);
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                assertThat(response.getBody().getId()).isEqualTo(7L);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(runs).hasValue(1);
+        assertThat(idempotencyService.execute("key-concurrent", request(3), () -> created(8L))
+                .getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        idempotencyService.execute("key-mismatch", request(1), () -> created(1L));
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-mismatch", request(2), () -> created(2L)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void serverErrorsAreNotStored() {
+        idempotencyService.execute("key-error", request(1),
+                () -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+
+        ResponseEntity<OrderDTO> retried = idempotencyService.execute("key-error", request(1), () -> created(3L));
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void failedOrdersAreNotStored() {
+        idempotencyService.execute("key-failed", request(1), () -> ResponseEntity.status(HttpStatus.CREATED)
+                .body(OrderDTO.builder().id(4L).userId(42L).status("FAILED").totalAmount(0.0).build()));
+
+        ResponseEntity<OrderDTO> retried = idempotencyService.execute("key-failed", request(1), () -> created(5L));
+        assertThat(retried.getBody().getStatus()).isEqualTo("PLACED");
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    private static ResponseEntity<OrderDTO> created(Long id) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(OrderDTO.builder().id(id).userId(42L).status("PLACED").totalAmount(7.5).build());
+    }
+
+    private static PlaceOrderRequest request(int quantity) {
+        return new PlaceOrderRequest(42L, List.of(new OrderItemDTO(1L, quantity, 0.0)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.domain.OrderOutbox;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.repository.OrderOutboxRepository;
+import com.example.productcontract.ProductSummary;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "order.product-cache.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:outbox-test;DB_CLOSE_DELAY=-1"
+})
+class OrderOutboxDispatcherTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxDispatcher dispatcher;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @BeforeEach
+    void products() {
+        ProductSummary product = new ProductSummary(1L, "widget", 2.5, 100);
+        when(productClient.getProductSummaries(anyCollection())).thenReturn(List.of(product));
+        when(productClient.getProductSummary(1L)).thenReturn(product);
+    }
+
+    @Test
+    void pendingOrderIsPricedAndPlaced() {
+        OrderDTO pending = orderService.submitOrder(request());
+        assertThat(pending.getStatus()).isEqualTo("PENDING");
+
+        dispatcher.dispatch();
+
+        assertThat(orderService.findStatus(pending.getId())).hasValueSatisfying(s -> {
+            assertThat(s.getStatus()).isEqualTo("PLACED");
+            assertThat(s.getTotalAmount()).isEqualTo(7.5);
+        });
+    }
+
+    @Test
+    void rejectedReservationFailsTheOrder() {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/products/reserve",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        when(productClient.reserveStock(any()))
+                .thenThrow(FeignException.errorStatus("reserveStock",
+                        feign.Response.builder().status(409).request(request).headers(Map.of()).build()));
+
+        OrderDTO pending = orderService.submitOrder(request());
+        dispatcher.dispatch();
+
+        assertThat(orderService.findStatus(pending.getId()))
+                .hasValueSatisfying(s -> assertThat(s.getStatus()).isEqualTo("FAILED"));
+    }
+
+    @Test
+    void reclaimedEntryReleasesItsReservationInsteadOfPlacing() {
+        OrderDTO pending = orderService.submitOrder(request());
+        when(productClient.reserveStock(any())).thenAnswer(call -> {
+            // the claim times out mid-call and another dispatcher takes the entry over
+            OrderOutbox entry = outboxRepository.findAll().stream()
+                    .filter(o -> o.getOrderId().equals(pending.getId())).findFirst().orElseThrow();
+            transactionTemplate.execute(s -> outboxRepository.claim(entry.getId(), entry.getVersion(), Instant.now()));
+            return Map.of("status", "OK", "reservationId", "r-42");
+        });
+
+        dispatcher.dispatch();
+
+        verify(productClient).releaseReservation("r-42");
+        assertThat(orderService.findStatus(pending.getId()))
+                .hasValueSatisfying(s -> assertThat(s.getStatus()).isEqualTo("PENDING"));
+    }
+
+    private static PlaceOrderRequest request() {
+        return new PlaceOrderRequest(42L, List.of(new OrderItemDTO(1L, 3, 0.0)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ConcurrencyLimitExceededException;
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.repository.OrderBatchWriter;
+import com.example.productcontract.ProductSummary;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "order.product-cache.enabled=false",
+        "order.product-changes.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:order-service-test;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class OrderServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderStatsService statsService;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoSpyBean
+    private OrderBatchWriter batchWriter;
+
+    @Test
+    void businessRejectionsSkipTheFallback() {
+        when(productClient.getProductSummaries(anyCollection()))
+                .thenReturn(List.of(new ProductSummary(1L, "widget", 2.5, 1)));
+
+        assertThatThrownBy(() -> orderService.placeOrder(order(31L, 1L, 5)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThatThrownBy(() -> orderService.placeOrder(order(31L, 2L, 1)))
+                .isInstanceOf(ProductNotFoundException.class);
+        // no FAILED order was stored by the circuit-breaker fallback
+        assertThat(statsService.userStats(31L).getOrderCount()).isZero();
+    }
+
+    @Test
+    void shedCallsSkipTheFallbackAndAnswer503() throws Exception {
+        when(productClient.getProductSummaries(anyCollection()))
+                .thenThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("productService")))
+                .thenThrow(new ConcurrencyLimitExceededException(20));
+
+        assertThatThrownBy(() -> orderService.placeOrder(order(33L, 1L, 1)))
+                .isInstanceOf(BulkheadFullException.class);
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":33,\"items\":[{\"productId\":1,\"quantity\":1}]}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        // no FAILED order was stored for either shed request
+        assertThat(statsService.userStats(33L).getOrderCount()).isZero();
+    }
+
+    @Test
+    void reservationIsReleasedWhenTheOrderCannotBeStored() throws Exception {
+        when(productClient.getProductSummaries(anyCollection()))
+                .thenReturn(List.of(new ProductSummary(1L, "widget", 2.5, 10)));
+        when(productClient.reserveStock(any())).thenReturn(Map.of("status", "OK", "reservationId", "r-32"));
+        // the PLACED insert fails; the fallback's FAILED insert goes through
+        doThrow(new DataAccessResourceFailureException("disk full")).doCallRealMethod()
+                .when(batchWriter).insertAll(any());
+
+        OrderDTO order = orderService.placeOrder(order(32L, 1L, 2));
+
+        assertThat(order.getStatus()).isEqualTo("FAILED");
+        verify(productClient).releaseReservation("r-32");
+    }
+
+    private static PlaceOrderRequest order(Long userId, Long productId, int quantity) {
+        return new PlaceOrderRequest(userId, new ArrayList<>(List.of(new OrderItemDTO(productId, quantity, 0))));
+    }
+}
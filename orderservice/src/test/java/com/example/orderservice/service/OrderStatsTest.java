@@ -0,0 +1,141 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.DailyRevenueDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.dto.UserOrderStatsDTO;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "order.async.dispatcher-enabled=false",
+        "order.product-cache.enabled=false",
+        "order.product-changes.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:stats-test;DB_CLOSE_DELAY=-1"
+})
+class OrderStatsTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderOutboxDispatcher dispatcher;
+
+    @Autowired
+    private OrderStatsService statsService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @Test
+    void aggregatesAreBackfilledBeforeAnythingCanWriteThem() {
+        // every write path goes through OrderAggregateWriter, which is only created once the backfill ran
+        assertThat(context.getBeanFactory().getDependenciesForBean("orderAggregateWriter"))
+                .contains("orderAggregatesBackfill");
+        // and not as a runner, which would only start once the server already takes orders
+        assertThat(context.getBeansOfType(ApplicationRunner.class).values())
+                .noneMatch(OrderAggregatesBackfill.class::isInstance);
+    }
+
+    @Test
+    void aggregatesFollowEveryWritePath() throws Exception {
+        when(productClient.getProductSummaries(anyCollection()))
+                .thenReturn(List.of(new ProductSummary(1L, "widget", 2.5, 100)));
+        // single-unit reservations fail, which keeps user 12's async order PENDING
+        when(productClient.reserveStock(any())).thenAnswer(call -> {
+            StockReservationRequest req = call.getArgument(0);
+            if (req.getItems().get(0).getQuantity() == 1) throw new IllegalStateException("out of stock");
+            return Map.of("status", "OK");
+        });
+        when(productClient.reserveStockBulk(any())).thenReturn(new BulkStockReservationResponse(List.of(true, true), List.of("r1", "r2")));
+        dispatcher.dispatch(); // settle async orders left by other tests before taking the baseline
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        DailyRevenueDTO before = statsService.revenueByDay(today, today).stream().findFirst()
+                .orElse(new DailyRevenueDTO(today, 0, 0, 0.0));
+
+        // JPA insert, PLACED
+        orderService.placeOrder(order(11L, 2));
+        // circuit breaker fallback, FAILED
+        orderService.placeOrderFallback(order(11L, 1), new RuntimeException("down"));
+        // PENDING, then moved to PLACED by the dispatcher
+        orderService.submitOrder(order(11L, 4));
+        orderService.submitOrder(order(12L, 1));
+        assertThat(statsService.userStats(11L).getPendingCount()).isEqualTo(1);
+        dispatcher.dispatch();
+        // JDBC batch insert
+        List<BulkOrderResult> results = new ArrayList<>();
+        bulkOrderService.placeOrders(List.of(order(11L, 1), order(12L, 2)), results::addAll);
+        assertThat(results).extracting(BulkOrderResult::getStatus).containsExactly("PLACED", "PLACED");
+
+        UserOrderStatsDTO user = statsService.userStats(11L);
+        assertThat(user.getOrderCount()).isEqualTo(4);
+        assertThat(user.getPlacedCount()).isEqualTo(3);
+        assertThat(user.getFailedCount()).isEqualTo(1);
+        assertThat(user.getPendingCount()).isZero();
+        assertThat(user.getPlacedAmount()).isEqualTo(2.5 * (2 + 4 + 1));
+        assertThat(statsService.userStats(12L).getPendingCount()).isEqualTo(1);
+        assertThat(statsService.userStats(99L).getOrderCount()).isZero();
+
+        assertThat(statsService.revenueByDay(today.minusDays(1), today)).singleElement().satisfies(day -> {
+            assertThat(day.getDay()).isEqualTo(today);
+            assertThat(day.getOrderCount() - before.getOrderCount()).isEqualTo(6);
+            assertThat(day.getPlacedCount() - before.getPlacedCount()).isEqualTo(4);
+            assertThat(day.getRevenue() - before.getRevenue()).isEqualTo(2.5 * (2 + 4 + 1 + 2));
+        });
+        assertThat(statsService.revenueByDay(today.plusDays(1), today.plusDays(2))).isEmpty();
+    }
+
+    @Test
+    void searchUsesEachFilter() throws Exception {
+        when(productClient.getProductSummaries(anyCollection()))
+                .thenReturn(List.of(new ProductSummary(1L, "widget", 2.5, 100)));
+        when(productClient.reserveStock(any())).thenReturn(Map.of("status", "OK"));
+        OrderDTO first = orderService.placeOrder(order(21L, 1));
+        OrderDTO second = orderService.submitOrder(order(21L, 2));
+        orderService.placeOrder(order(22L, 3));
+
+        assertThat(orderService.search(21L, null, null, null, 0, 10).getContent())
+                .extracting(OrderDTO::getId).containsExactly(second.getId(), first.getId());
+        assertThat(orderService.search(21L, "PENDING", null, null, 0, 10).getContent())
+                .singleElement().satisfies(o -> assertThat(o.getItems()).hasSize(1));
+        assertThat(orderService.search(null, "PENDING", null, null, 0, 10).getContent())
+                .extracting(OrderDTO::getId).contains(second.getId()).doesNotContain(first.getId());
+        Instant later = Instant.now().plus(1, ChronoUnit.HOURS);
+        assertThat(orderService.search(null, null, later, null, 0, 10)).isEmpty();
+        assertThat(orderService.search(21L, null, null, null, 0, 1).hasNext()).isTrue();
+    }
+
+    private static PlaceOrderRequest order(Long userId, int quantity) {
+        return new PlaceOrderRequest(userId, new ArrayList<>(List.of(new OrderItemDTO(1L, quantity, 0))));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductCatalogCache;
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.config.ProductCacheProperties;
+import com.example.orderservice.config.ProductLookupProperties;
+import com.example.productcontract.ProductSummary;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductLookupServiceTest {
+
+    @Test
+    void saturatedFanOutFallsBackToOneBatchCall() {
+        CountDownLatch unblock = new CountDownLatch(1);
+        ProductClient client = mock(ProductClient.class);
+        when(client.getProductSummary(anyLong())).thenAnswer(call -> {
+            unblock.await(5, TimeUnit.SECONDS);
+            return new ProductSummary(call.getArgument(0), "slow", 1.0, 1);
+        });
+        when(client.getProductSummaries(anyCollection())).thenReturn(List.of(
+                new ProductSummary(1L, "a", 1.0, 1), new ProductSummary(2L, "b", 1.0, 1),
+                new ProductSummary(3L, "c", 1.0, 1)));
+
+        ProductLookupProperties props = new ProductLookupProperties();
+        props.setMode(ProductLookupProperties.Mode.PARALLEL);
+        props.setParallelism(1);
+        props.setQueueCapacity(1);
+        ProductCacheProperties cacheProps = new ProductCacheProperties();
+        cacheProps.setEnabled(false);
+        ProductLookupService service = new ProductLookupService(client, props,
+                new ProductCatalogCache(cacheProps, new SimpleMeterRegistry()),
+                RetryRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+        try {
+            // one lookup runs, one waits in the queue, the third is rejected
+            assertThat(service.findProducts(List.of(1L, 2L, 3L))).containsOnlyKeys(1L, 2L, 3L);
+            verify(client).getProductSummaries(anyCollection());
+        } finally {
+            unblock.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void unknownProductsAreAbsentInEveryMode() {
+        for (ProductLookupProperties.Mode mode : ProductLookupProperties.Mode.values()) {
+            ProductClient client = mock(ProductClient.class);
+            when(client.getProductSummary(1L)).thenReturn(new ProductSummary(1L, "a", 1.0, 1));
+            when(client.getProductSummary(2L)).thenThrow(notFound(2L));
+            when(client.getProductSummaries(anyCollection())).thenReturn(List.of(new ProductSummary(1L, "a", 1.0, 1)));
+
+            ProductLookupProperties props = new ProductLookupProperties();
+            props.setMode(mode);
+            ProductCacheProperties cacheProps = new ProductCacheProperties();
+            cacheProps.setEnabled(false);
+            ProductLookupService service = new ProductLookupService(client, props,
+                    new ProductCatalogCache(cacheProps, new SimpleMeterRegistry()),
+                    productLookupRetry(), TimeLimiterRegistry.ofDefaults());
+            try {
+                Map<Long, ProductSummary> found = service.findProducts(List.of(1L, 2L));
+                assertThat(found).as(mode.name()).containsOnlyKeys(1L);
+                if (mode != ProductLookupProperties.Mode.BATCH) {
+                    // a 404 is an answer, not a transient failure
+                    verify(client).getProductSummary(2L);
+                    verify(client, never()).getProductSummaries(anyCollection());
+                }
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    // as configured in application.yml: only I/O errors, timeouts and 5xx are retried
+    private static RetryRegistry productLookupRetry() {
+        return RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(feign.RetryableException.class, FeignException.FeignServerException.class)
+                .build());
+    }
+
+    private static FeignException notFound(long id) {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/products/" + id + "/summary",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not Found", request, null, Map.of());
+    }
+}
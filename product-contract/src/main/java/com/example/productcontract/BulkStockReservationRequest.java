@@ -0,0 +1,19 @@
+package com.example.productcontract;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Several independent reservations in one call; each one is all-or-nothing on its own. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockReservationRequest {
+    @NotEmpty
+    @Valid
+    private List<StockReservationRequest> reservations;
+}
@@ -0,0 +1,19 @@
+package com.example.productcontract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome per reservation, in request order: true if it was taken, false if a product was short or missing.
+ * reservationIds holds, at the same positions, the id to release a taken reservation with (null otherwise).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockReservationResponse {
+    private List<Boolean> reserved;
+    private List<String> reservationIds;
+}
@@ -0,0 +1,13 @@
+package com.example.productcontract;
+
+/** Media types both sides of the product contract understand. */
+public final class ContractMediaTypes {
+
+    // Jackson Smile: binary JSON, smaller and cheaper to parse than text
+    public static final String SMILE = "application/x-jackson-smile";
+
+    public static final String JSON = "application/json";
+
+    private ContractMediaTypes() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.productcontract;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of product-service's change log. {@code seq} is assigned by the log, strictly
+ * increasing, and is the offset a consumer resumes from. Which value fields are set depends on
+ * the type: CREATED carries name, price and initial stock; PRICE_CHANGED the new price;
+ * STOCK_CHANGED the stock delta (negative for reservations).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ProductChange {
+
+    public enum Type {
+        CREATED,
+        PRICE_CHANGED,
+        STOCK_CHANGED
+    }
+
+    private long seq;
+    private Instant at;
+    private Type type;
+    private Long productId;
+    private String name;
+    private Double price;
+    private Integer stock;
+    private Integer stockDelta;
+}
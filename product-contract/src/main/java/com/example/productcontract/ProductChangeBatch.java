@@ -0,0 +1,21 @@
+package com.example.productcontract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Long-poll answer of GET /api/products/changes. Resume with {@code after=lastSeq}.
+ * {@code reset} means the requested offset is no longer in the log (or is ahead of it):
+ * the consumer has to drop whatever it derived from earlier entries and continue from lastSeq.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeBatch {
+    private List<ProductChange> changes;
+    private long lastSeq;
+    private boolean reset;
+}
@@ -0,0 +1,21 @@
+package com.example.productcontract;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What order-service needs to price and check a cart line. Deliberately leaves out the
+ * description so lookups neither send nor parse it. {@code stock} is null when unknown.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private double price;
+    private Integer stock;
+}
@@ -0,0 +1,18 @@
+package com.example.productcontract;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationItem {
+    @NotNull
+    private Long productId;
+
+    @Min(1)
+    private int quantity;
+}
@@ -0,0 +1,32 @@
+package com.example.productservice;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots product-service inside a JMH fork: no web server, no Eureka and no SQL logging.
+ * Benchmarks start it in a trial-level setup and close it in the teardown.
+ */
+public final class BenchmarkContext {
+
+    private static final List<String> DEFAULTS = List.of(
+            "eureka.client.enabled=false",
+            "spring.jpa.show-sql=false");
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>();
+        // as command-line arguments, so they win over application.yml
+        DEFAULTS.forEach(p -> args.add("--" + p));
+        for (String p : properties) args.add("--" + p);
+        return new SpringApplicationBuilder(ProductserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.productservice.inventory;
+
+import com.example.productcontract.StockReservationItem;
+import com.example.productservice.BenchmarkContext;
+import com.example.productservice.domain.Product;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations/sec on a single hot product: in-memory engine (CAS + WAL append) vs the conditional
+ * row UPDATE it replaces (through JPA as reduceStock ran it, and as bare JDBC).
+ * {@code engine} measures the counters alone; {@code reserveStock} is what a reservation costs with
+ * the engine enabled, including the stock_reservations row inserted for every reservation.
+ * Runs 8 threads; pass -t 1, -t 64 etc. to see how each scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class InventoryEngineBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private InventoryEngine engine;
+    private ProductService productService;
+    private ProductRepository repo;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbc;
+    private Map<Long, Integer> oneOfEngineProduct;
+    private List<StockReservationItem> oneOfEngineProductItems;
+    private long rowId;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        // a fresh WAL per trial: the in-memory database starts empty, so nothing may be replayed into it
+        Path walDir = Files.createTempDirectory("inventory-wal-benchmark");
+        context = BenchmarkContext.start("product.inventory.enabled=true", "product.inventory.wal-dir=" + walDir);
+        engine = context.getBean(InventoryEngine.class);
+        productService = context.getBean(ProductService.class);
+        repo = context.getBean(ProductRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        long engineId = repo.save(Product.builder().name("hot-engine").price(1).stock(Integer.MAX_VALUE / 2).build()).getId();
+        rowId = repo.save(Product.builder().name("hot-row").price(1).stock(Integer.MAX_VALUE / 2).build()).getId();
+        oneOfEngineProduct = Map.of(engineId, 1);
+        oneOfEngineProductItems = List.of(new StockReservationItem(engineId, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean engine() {
+        return engine.reserve(oneOfEngineProduct);
+    }
+
+    @Benchmark
+    public String reserveStock() {
+        return productService.reserveStock(oneOfEngineProductItems);
+    }
+
+    @Benchmark
+    public boolean jpa() {
+        return Boolean.TRUE.equals(transactionTemplate.execute(tx -> repo.decrementStock(rowId, 1) == 1));
+    }
+
+    @Benchmark
+    public boolean jdbc() {
+        return jdbc.update("update products set stock = stock - 1 where id = ? and stock >= 1", rowId) == 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.productservice.search;
+
+import com.example.productservice.BenchmarkContext;
+import com.example.productservice.domain.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory index vs the derived LIKE query at 100k and 1M products.
+ * Both answer the same 20 random vocabulary words in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ProductSearchBenchmark {
+
+    private static final int QUERIES = 20;
+
+    @Param({"100000", "1000000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository repo;
+    private ProductSearchIndex index;
+    private final List<String> queries = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void load() {
+        context = BenchmarkContext.start();
+        repo = context.getBean(ProductRepository.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) vocabulary.add(word(random));
+        jdbc.execute("truncate table products restart identity");
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            batch.add(new Object[]{phrase(vocabulary, random, 3), phrase(vocabulary, random, 8),
+                    random.nextInt(10_000) / 100.0, random.nextInt(100)});
+            if (batch.size() == 10_000 || i == products - 1) {
+                jdbc.batchUpdate("insert into products(name, description, price, stock) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        index = new ProductSearchIndex();
+        jdbc.query("select id, name, description, stock from products", rs -> {
+            index.index(Product.builder()
+                    .id(rs.getLong(1)).name(rs.getString(2)).description(rs.getString(3)).stock(rs.getInt(4))
+                    .build());
+        });
+        for (int i = 0; i < QUERIES; i++) queries.add(vocabulary.get(random.nextInt(vocabulary.size())));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Result index() {
+        return index.search(nextQuery(), 0, 10);
+    }
+
+    @Benchmark
+    public List<Product> likeQuery() {
+        return repo.findByNameContainingIgnoreCase(nextQuery());
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries.get(next);
+    }
+
+    private static String phrase(List<String> vocabulary, Random random, int words) {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (int i = 0; i < words; i++) joiner.add(vocabulary.get(random.nextInt(vocabulary.size())));
+        return joiner.toString();
+    }
+
+    private static String word(Random random) {
+        char[] chars = new char[6];
+        for (int i = 0; i < chars.length; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.config.ProductCacheProperties;
+import com.example.productservice.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Two-level read cache for ProductService.
+ * Products are cached by id; query results only hold the matching ids (plus the total),
+ * so a stock change evicts one product entry instead of every page that contains it.
+ */
+@Component
+public class ProductCache {
+
+    public record IdPage(List<Long> ids, long total) { }
+
+    private final ProductCacheProperties properties;
+    private final Cache<Long, ProductDTO> byId;
+    private final Cache<String, IdPage> queries;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getByIdMaxSize())
+                .expireAfterWrite(properties.getByIdTtl())
+                .recordStats()
+                .build();
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(properties.getQueryMaxSize())
+                .expireAfterWrite(properties.getQueryTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, queries, "productQueries");
+    }
+
+    public boolean isPageCached(int page) {
+        return page < properties.getCachedPages();
+    }
+
+    public Optional<ProductDTO> get(Long id, Function<Long, Optional<ProductDTO>> loader) {
+        return Optional.ofNullable(byId.get(id, k -> loader.apply(k).orElse(null)));
+    }
+
+    /** Cached products for {@code ids}, loading the misses in one call. Missing ids are absent. */
+    public Map<Long, ProductDTO> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, ProductDTO>> loader) {
+        return byId.getAll(ids, missing -> loader.apply(new LinkedHashSet<>(missing)));
+    }
+
+    public void putAll(Collection<ProductDTO> products) {
+        for (ProductDTO p : products) {
+            byId.put(p.getId(), p);
+        }
+    }
+
+    public IdPage getQuery(String key, Supplier<IdPage> loader) {
+        return queries.get(key, k -> loader.get());
+    }
+
+    public void evictProducts(Collection<Long> ids) {
+        byId.invalidateAll(ids);
+    }
+
+    public void evictQueries() {
+        queries.invalidateAll();
+    }
+
+    public void evictQueries(String keyPrefix) {
+        queries.asMap().keySet().removeIf(k -> k.startsWith(keyPrefix));
+    }
+}
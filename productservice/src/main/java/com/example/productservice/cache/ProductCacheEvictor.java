@@ -0,0 +1,32 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// evicts exactly what a committed change can affect
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictor {
+
+    private final ProductCache productCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            // a new product can land on any page / filter result
+            case CREATED -> productCache.evictQueries();
+            // price affects the product itself plus price-sorted pages and price filters
+            case PRICE_CHANGED -> {
+                productCache.evictProducts(event.productIds());
+                productCache.evictQueries();
+            }
+            // stock only affects the product entries and pages sorted by stock
+            case STOCK_CHANGED -> {
+                productCache.evictProducts(event.productIds());
+                productCache.evictQueries(ProductCacheKeys.LIST + "stock:");
+            }
+        }
+    }
+}
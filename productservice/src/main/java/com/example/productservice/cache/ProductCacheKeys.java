@@ -0,0 +1,18 @@
+package com.example.productservice.cache;
+
+// keys of the query cache; the prefix identifies the kind of query for targeted eviction
+public final class ProductCacheKeys {
+
+    public static final String LIST = "list:";
+    public static final String PRICE = "price:";
+
+    private ProductCacheKeys() { }
+
+    public static String list(String sortBy, int page, int size) {
+        return LIST + sortBy + ":" + page + ":" + size;
+    }
+
+    public static String price(double min, double max, int page, int size) {
+        return PRICE + min + ":" + max + ":" + page + ":" + size;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.productservice.changelog;
+
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductChangeBatch;
+import com.example.productservice.config.ChangeLogProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, file-backed log of product changes (one JSON line per entry), split into
+ * segments named after their first sequence number. Appends assign the next sequence number;
+ * reads resume after any retained offset. Recent entries are also kept in memory so consumers
+ * that keep up are served without file I/O. A torn last line left by a crash is cut off on startup.
+ */
+@Slf4j
+@Component
+public class ProductChangeLog {
+
+    private static final String PREFIX = "changes-";
+    private static final String SUFFIX = ".log";
+
+    private final ChangeLogProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final ArrayDeque<ProductChange> tail = new ArrayDeque<>();
+    private FileChannel active;
+    private long activeSize;
+    private long lastSeq;
+
+    public ProductChangeLog(ChangeLogProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Path dir = Paths.get(properties.getDir());
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(p -> segments.put(firstSeqOf(p), p));
+        }
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            recoverLastSegment(segments.lastEntry().getValue());
+        }
+        log.info("Product change log at {}: {} segment(s), last seq {}", dir.toAbsolutePath(), segments.size(), lastSeq);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.force(false);
+            active.close();
+        }
+    }
+
+    /** Sequence and persist the given changes in order; returns them with seq and timestamp set. */
+    public List<ProductChange> append(List<ProductChange> changes) {
+        List<ProductChange> appended = new ArrayList<>(changes.size());
+        synchronized (this) {
+            Instant now = Instant.now();
+            try {
+                for (ProductChange change : changes) {
+                    ProductChange entry = change.toBuilder().seq(lastSeq + 1).at(now).build();
+                    byte[] line = toLine(entry);
+                    if (activeSize > 0 && activeSize + line.length > properties.getSegmentSize().toBytes()) {
+                        rollTo(entry.getSeq());
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(line);
+                    while (buffer.hasRemaining()) {
+                        activeSize += active.write(buffer);
+                    }
+                    lastSeq = entry.getSeq();
+                    remember(entry);
+                    appended.add(entry);
+                }
+                if (properties.isFsync()) {
+                    active.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the product change log", e);
+            }
+        }
+        listeners.forEach(Runnable::run);
+        return appended;
+    }
+
+    /**
+     * Up to {@code max} entries with a sequence number above {@code afterSeq}. A negative
+     * {@code afterSeq} means "from now on": nothing is returned, only the current lastSeq.
+     */
+    public ProductChangeBatch read(long afterSeq, int max) {
+        long head;
+        Map.Entry<Long, Path> startSegment;
+        NavigableMap<Long, Path> laterSegments;
+        synchronized (this) {
+            head = lastSeq;
+            if (afterSeq < 0 || afterSeq == head) {
+                return new ProductChangeBatch(List.of(), head, false);
+            }
+            long earliest = segments.isEmpty() ? head + 1 : segments.firstKey();
+            if (afterSeq > head || afterSeq + 1 < earliest) {
+                return new ProductChangeBatch(List.of(), head, true);
+            }
+            if (!tail.isEmpty() && tail.peekFirst().getSeq() <= afterSeq + 1) {
+                List<ProductChange> out = new ArrayList<>((int) Math.min(max, head - afterSeq));
+                // the tail holds consecutive sequence numbers, so positions follow from seq
+                if (head - afterSeq <= max) {
+                    // caught-up consumer: walk back from the newest entry
+                    Iterator<ProductChange> it = tail.descendingIterator();
+                    for (long i = afterSeq; i < head; i++) out.add(it.next());
+                    Collections.reverse(out);
+                } else {
+                    long skip = afterSeq + 1 - tail.peekFirst().getSeq();
+                    Iterator<ProductChange> it = tail.iterator();
+                    for (long i = 0; i < skip; i++) it.next();
+                    while (it.hasNext() && out.size() < max) out.add(it.next());
+                }
+                return new ProductChangeBatch(out, out.get(out.size() - 1).getSeq(), false);
+            }
+            startSegment = segments.floorEntry(afterSeq + 1);
+            laterSegments = new TreeMap<>(segments.tailMap(startSegment.getKey(), false));
+        }
+        // a consumer that fell behind the memory tail: scan the files without holding the lock
+        try {
+            List<ProductChange> out = new ArrayList<>();
+            List<Path> paths = new ArrayList<>();
+            paths.add(startSegment.getValue());
+            paths.addAll(laterSegments.values());
+            // stop at head: the line after it may still be half-written by a concurrent append
+            boolean done = false;
+            for (Iterator<Path> it = paths.iterator(); it.hasNext() && !done; ) {
+                try (BufferedReader reader = Files.newBufferedReader(it.next(), StandardCharsets.UTF_8)) {
+                    String line;
+                    while (!done && (line = reader.readLine()) != null) {
+                        ProductChange change = objectMapper.readValue(line, ProductChange.class);
+                        if (change.getSeq() > afterSeq) out.add(change);
+                        done = change.getSeq() >= head || out.size() >= max;
+                    }
+                }
+            }
+            return new ProductChangeBatch(out, out.isEmpty() ? afterSeq : out.get(out.size() - 1).getSeq(), false);
+        } catch (NoSuchFileException e) {
+            // the segment was retired while we were reading it
+            return new ProductChangeBatch(List.of(), head, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /** Called (on the appending thread, outside the log's lock) after every append. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private void remember(ProductChange entry) {
+        tail.addLast(entry);
+        while (tail.size() > properties.getMemoryTail()) {
+            tail.removeFirst();
+        }
+    }
+
+    private void rollTo(long firstSeq) throws IOException {
+        active.force(false);
+        active.close();
+        openSegment(firstSeq);
+        while (segments.size() > properties.getMaxSegments()) {
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = Paths.get(properties.getDir(), String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+        active = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSize = active.size();
+        segments.put(firstSeq, path);
+        lastSeq = Math.max(lastSeq, firstSeq - 1);
+    }
+
+    // find the last complete entry, truncate anything after it and reopen the segment for appends
+    private void recoverLastSegment(Path path) throws IOException {
+        long firstSeq = firstSeqOf(path);
+        lastSeq = firstSeq - 1;
+        byte[] content = Files.readAllBytes(path);
+        long validLength = 0;
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') continue;
+            try {
+                ProductChange change = objectMapper.readValue(content, lineStart, i - lineStart, ProductChange.class);
+                lastSeq = change.getSeq();
+                remember(change);
+                validLength = i + 1;
+            } catch (IOException e) {
+                break;
+            }
+            lineStart = i + 1;
+        }
+        if (validLength < content.length) {
+            log.warn("Truncating {} torn byte(s) at the end of {}", content.length - validLength, path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        segments.remove(firstSeq);
+        openSegment(firstSeq);
+    }
+
+    private byte[] toLine(ProductChange entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = Arrays.copyOf(json, json.length + 1);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static long firstSeqOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
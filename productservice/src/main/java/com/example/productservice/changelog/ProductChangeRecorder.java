@@ -0,0 +1,19 @@
+package com.example.productservice.changelog;
+
+import com.example.productservice.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// appends committed changes to the change log on the committing thread, so nothing rolled back is ever logged
+@Component
+@RequiredArgsConstructor
+public class ProductChangeRecorder {
+
+    private final ProductChangeLog changeLog;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changeLog.append(event.changes());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.productservice.changelog;
+
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductChangeBatch;
+import com.example.productservice.config.ChangeLogProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the change log to consumers: long-polls park as DeferredResults until something
+ * newer than their offset is appended, SSE subscribers are drained from their own offset on a
+ * small push pool. Neither holds a servlet thread while waiting.
+ */
+@Slf4j
+@Component
+public class ProductChangeStream {
+
+    private final ProductChangeLog changeLog;
+    private final ChangeLogProperties properties;
+    private final Set<Poll> polls = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService pushPool;
+    private final ScheduledExecutorService heartbeats;
+    private final Runnable onAppend = this::onAppend;
+
+    public ProductChangeStream(ProductChangeLog changeLog, ChangeLogProperties properties, MeterRegistry meterRegistry) {
+        this.changeLog = changeLog;
+        this.properties = properties;
+        Gauge.builder("product.changes.consumers", polls, Set::size).tag("kind", "long-poll").register(meterRegistry);
+        Gauge.builder("product.changes.consumers", subscribers, Set::size).tag("kind", "sse").register(meterRegistry);
+        Gauge.builder("product.changes.last.seq", changeLog, ProductChangeLog::lastSeq).register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threads = r -> {
+            Thread t = new Thread(r, "product-change-push-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pushPool = Executors.newFixedThreadPool(4, threads);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threads);
+    }
+
+    @PostConstruct
+    public void start() {
+        changeLog.addListener(onAppend);
+        long period = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::heartbeat), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        changeLog.removeListener(onAppend);
+        heartbeats.shutdownNow();
+        pushPool.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    /** Entries after {@code afterSeq}, waiting up to {@code wait} for the first one to be appended. */
+    public DeferredResult<ProductChangeBatch> poll(long afterSeq, int max, Duration wait) {
+        long after = afterSeq < 0 ? changeLog.lastSeq() : afterSeq;
+        int limit = Math.min(max, properties.getMaxBatch());
+        Duration timeout = wait.compareTo(properties.getMaxWait()) > 0 ? properties.getMaxWait() : wait;
+        DeferredResult<ProductChangeBatch> result =
+                new DeferredResult<>(timeout.toMillis(), () -> changeLog.read(after, limit));
+        ProductChangeBatch now = changeLog.read(after, limit);
+        if (!now.getChanges().isEmpty() || now.isReset() || timeout.isZero()) {
+            result.setResult(now);
+            return result;
+        }
+        Poll poll = new Poll(after, limit, result);
+        polls.add(poll);
+        result.onCompletion(() -> polls.remove(poll));
+        // an append between the read above and registering would otherwise go unnoticed
+        poll.offer();
+        return result;
+    }
+
+    /** SSE stream of every entry after {@code afterSeq} (event id = seq), then live entries. */
+    public SseEmitter subscribe(long afterSeq) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, afterSeq < 0 ? changeLog.lastSeq() : afterSeq);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    private void onAppend() {
+        if (!polls.isEmpty()) {
+            pushPool.execute(() -> polls.forEach(Poll::offer));
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    private final class Poll {
+        private final long after;
+        private final int max;
+        private final DeferredResult<ProductChangeBatch> result;
+
+        Poll(long after, int max, DeferredResult<ProductChangeBatch> result) {
+            this.after = after;
+            this.max = max;
+            this.result = result;
+        }
+
+        void offer() {
+            if (result.isSetOrExpired()) return;
+            ProductChangeBatch batch = changeLog.read(after, max);
+            if (!batch.getChanges().isEmpty() || batch.isReset()) {
+                result.setResult(batch);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long cursor; // guarded by this
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    pushPool.execute(() -> {
+                        scheduled.set(false);
+                        drain();
+                    });
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        // one drain at a time per subscriber, so events go out in order and exactly once
+        synchronized void drain() {
+            try {
+                while (true) {
+                    ProductChangeBatch batch = changeLog.read(cursor, properties.getMaxBatch());
+                    if (batch.isReset()) {
+                        // offset no longer available: the consumer must drop derived state and continue from here
+                        emitter.send(SseEmitter.event().id(Long.toString(batch.getLastSeq())).name("reset")
+                                .data(batch.getLastSeq()));
+                        cursor = batch.getLastSeq();
+                        continue;
+                    }
+                    if (batch.getChanges().isEmpty()) return;
+                    for (ProductChange change : batch.getChanges()) {
+                        emitter.send(SseEmitter.event().id(Long.toString(change.getSeq())).name("change")
+                                .data(change, MediaType.APPLICATION_JSON));
+                    }
+                    cursor = batch.getLastSeq();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away (or the emitter already completed)
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } catch (UncheckedIOException e) {
+                // the log could not be read: end the stream, the consumer reconnects from its last id
+                log.warn("Could not read the product change log for a subscriber at seq {}", cursor, e);
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        synchronized void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.change-log")
+public class ChangeLogProperties {
+
+    // directory holding the log segments; survives restarts, so sequence numbers keep increasing
+    private String dir = "data/product-changes";
+
+    // a new segment is started once the current one reaches this size
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    // oldest segments beyond this count are deleted; consumers further behind get a reset
+    private int maxSegments = 8;
+
+    // most recent entries kept in memory so consumers that keep up never touch the files
+    private int memoryTail = 10_000;
+
+    // fsync every append (survives power loss, costs a disk flush per write)
+    private boolean fsync = false;
+
+    // longest a long-poll request is held open when there is nothing new
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    // entries returned per long-poll / sent per SSE drain
+    private int maxBatch = 500;
+
+    // SSE streams are closed after this; clients reconnect with Last-Event-ID and lose nothing
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // SSE comment sent on idle streams so dead connections are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
@@ -0,0 +1,28 @@
+package com.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.inventory")
+public class InventoryProperties {
+
+    // serve reduceStock / reservations from in-memory counters instead of row updates
+    private boolean enabled = false;
+
+    // write-ahead log segments; must survive restarts (they are replayed into the DB on startup)
+    private String walDir = "data/inventory-wal";
+
+    // independent WAL files written in parallel; a thread always appends to the same one
+    private int walLanes = 8;
+
+    // fsync every WAL append (survives power loss, costs a disk flush per reservation)
+    private boolean fsync = false;
+
+    // how often WAL segments are folded into products.stock and deleted
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,24 @@
+package com.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.cache")
+public class ProductCacheProperties {
+
+    // products cached by id
+    private long byIdMaxSize = 10_000;
+    private Duration byIdTtl = Duration.ofMinutes(10);
+
+    // cached query results (ids of a page / price filter)
+    private long queryMaxSize = 1_000;
+    private Duration queryTtl = Duration.ofMinutes(1);
+
+    // only the first N pages of list / filter are cached per sort key
+    private int cachedPages = 5;
+}
@@ -0,0 +1,22 @@
+package com.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "product.reservations")
+public class ReservationProperties {
+
+    // how long a reservation can still be released; older records are purged
+    private Duration retention = Duration.ofDays(7);
+
+    // how often expired reservation records are deleted
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    // shared with order-service; releases without it in X-Service-Token are refused (all of them while unset)
+    private String releaseToken;
+}
@@ -0,0 +1,47 @@
+package com.example.productservice.controller;
+
+import com.example.productcontract.ProductChangeBatch;
+import com.example.productservice.changelog.ProductChangeStream;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * Ordered, replayable feed of product creates, price changes and stock deltas.
+ * Consumers keep the last seq they applied and resume after it; after=-1 starts at the current end.
+ */
+@RestController
+@RequestMapping("/api/products/changes")
+@RequiredArgsConstructor
+@Validated
+public class ProductChangeController {
+
+    private final ProductChangeStream changeStream;
+
+    // long-poll: answers as soon as there is anything after `after`, or with an empty batch after waitMs
+    @GetMapping
+    public DeferredResult<ProductChangeBatch> poll(
+            @RequestParam(defaultValue = "-1") long after,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(5000) int max,
+            @RequestParam(defaultValue = "25000") @Min(0) long waitMs
+    ) {
+        return changeStream.poll(after, max, Duration.ofMillis(waitMs));
+    }
+
+    // SSE: reconnecting clients resume from the Last-Event-ID header their SSE client sends automatically
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : -1;
+        return changeStream.subscribe(from);
+    }
+}
@@ -1,19 +1,35 @@
 package com.example.productservice.controller;
 
+import com.example.productcontract.BulkStockReservationRequest;
+import com.example.productcontract.BulkStockReservationResponse;
+import com.example.productcontract.ProductSummary;
+import com.example.productcontract.StockReservationRequest;
+import com.example.productservice.config.ReservationProperties;
 import com.example.productservice.domain.Product;
 import com.example.productservice.dto.CreateProductRequest;
+import com.example.productservice.dto.CursorPage;
 import com.example.productservice.dto.ProductDTO;
 import com.example.productservice.service.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/products")
@@ -21,7 +37,10 @@ import java.util.Map;
 @Validated
 public class ProductController {
 
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
     private final ProductService productService;
+    private final ReservationProperties reservationProperties;
 
     @PostMapping
     public ResponseEntity<ProductDTO> create(@Valid @RequestBody CreateProductRequest req) {
@@ -42,6 +61,25 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // multi-id fetch: POST body is the list of ids so large carts don't hit URL length limits
+    @PostMapping("/batch")
+    public List<ProductDTO> getByIds(@RequestBody @NotEmpty List<Long> ids) {
+        return productService.findAllByIdDto(new LinkedHashSet<>(ids));
+    }
+
+    // typed contract views for order-service; JSON or Smile depending on the Accept header
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ProductSummary> getSummary(@PathVariable Long id) {
+        return productService.findSummary(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch/summary")
+    public List<ProductSummary> getSummaries(@RequestBody @NotEmpty List<Long> ids) {
+        return productService.findSummaries(new LinkedHashSet<>(ids));
+    }
+
     @GetMapping
     public Page<ProductDTO> list(
             @RequestParam(defaultValue = "0") int page,
@@ -51,9 +89,35 @@ public class ProductController {
         return productService.list(page, size, sortBy);
     }
 
+    // keyset pagination: pass back nextCursor to get the following page; deep pages cost the same as the first
+    @GetMapping("/seek")
+    public ResponseEntity<CursorPage<ProductDTO>> seek(
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.ok(productService.seek(sortBy, cursor, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // NDJSON export of the whole catalog, streamed straight from a DB cursor
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = productService::exportNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/search")
-    public List<ProductDTO> search(@RequestParam String q) {
-        return productService.searchByName(q);
+    public Page<ProductDTO> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return productService.search(q, page, size);
     }
 
     @GetMapping("/filter/price")
@@ -66,6 +130,29 @@ public class ProductController {
         return productService.filterByPrice(min, max, page, size);
     }
 
+    @GetMapping("/filter/price/seek")
+    public ResponseEntity<CursorPage<ProductDTO>> filterByPriceSeek(
+            @RequestParam(defaultValue = "0") double min,
+            @RequestParam(defaultValue = "999999") double max,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        try {
+            return ResponseEntity.ok(productService.seekByPrice(min, max, cursor, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // price change; order-service near-caches are invalidated once the update commits
+    @PutMapping("/{id}/price")
+    public ResponseEntity<ProductDTO> updatePrice(@PathVariable Long id, @RequestParam @PositiveOrZero double price) {
+        return productService.updatePrice(id, price)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // simple endpoint to reduce stock (used by order-service)
     @PostMapping("/{id}/reduce")
     public ResponseEntity<?> reduceStock(@PathVariable Long id, @RequestParam int qty) {
@@ -73,4 +160,46 @@ public class ProductController {
         if (!ok) return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Insufficient stock or product missing");
         return ResponseEntity.ok(Map.of("status", "OK"));
     }
+
+    // bulk, all-or-nothing stock reservation for a whole order (used by order-service);
+    // the returned reservationId is what /reservations/{id}/release takes
+    @PostMapping("/reserve")
+    public ResponseEntity<?> reserveStock(@Valid @RequestBody StockReservationRequest req) {
+        String reservationId;
+        try {
+            reservationId = productService.reserveStock(req.getItems());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        return ResponseEntity.ok(Map.of("status", "OK", "reservationId", reservationId));
+    }
+
+    // many independent reservations in one call (bulk order placement); outcome per reservation
+    @PostMapping("/reserve/bulk")
+    public BulkStockReservationResponse reserveStockBulk(@Valid @RequestBody BulkStockReservationRequest req) {
+        List<String> ids = productService.reserveStockBulk(req.getReservations());
+        return new BulkStockReservationResponse(ids.stream().map(Objects::nonNull).toList(), ids);
+    }
+
+    // return the stock of a reservation whose order could not be stored; safe to retry.
+    // Service-to-service only: the caller must present product.reservations.release-token
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<Map<String, String>> releaseReservation(
+            @PathVariable String reservationId,
+            @RequestHeader(value = SERVICE_TOKEN_HEADER, required = false) String serviceToken) {
+        if (!isReleaseTokenValid(serviceToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ProductService.ReleaseOutcome outcome = productService.releaseReservation(reservationId);
+        if (outcome == ProductService.ReleaseOutcome.NOT_FOUND) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("status", outcome.name()));
+    }
+
+    private boolean isReleaseTokenValid(String presented) {
+        String expected = reservationProperties.getReleaseToken();
+        if (expected == null || expected.isEmpty() || presented == null) return false;
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.productservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Single row recording the last inventory WAL epoch already folded into products.stock.
+ * Updated in the same transaction as the stock deltas, so an epoch is never applied twice.
+ */
+@Entity
+@Table(name = "inventory_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckpoint {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long lastEpoch;
+
+    private Instant updatedAt;
+}
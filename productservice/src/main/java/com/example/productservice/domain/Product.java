@@ -5,9 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "products")
+// (sortKey, id) indexes back keyset pagination and price filtering
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
+// only changed columns are written, so a price update never overwrites stock adjusted in the meantime
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
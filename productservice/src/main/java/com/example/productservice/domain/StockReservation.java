@@ -0,0 +1,40 @@
+package com.example.productservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock taken by one successful reservation. It can be given back once, by id, through
+ * {@code POST /api/products/reservations/{id}/release}; the status flip from RESERVED to RELEASED
+ * is a conditional update, so a retried or duplicated release adds nothing.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = @Index(name = "idx_stock_reservations_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    private String id; // random UUID, handed to the caller
+
+    private String status; // RESERVED, RELEASED
+
+    private Instant createdAt;
+
+    // quantity per product id
+    @ElementCollection
+    @CollectionTable(name = "stock_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity")
+    @Builder.Default
+    private Map<Long, Integer> items = new HashMap<>();
+}
@@ -0,0 +1,23 @@
+package com.example.productservice.event;
+
+import com.example.productcontract.ProductChange;
+
+import java.util.List;
+
+/**
+ * Published by ProductService whenever products are created or modified.
+ * Listeners react after the surrounding transaction commits. {@code changes} holds one
+ * not yet sequenced change-log entry per product.
+ */
+public record ProductChangedEvent(Type type, List<Long> productIds, List<ProductChange> changes) {
+
+    public enum Type {
+        CREATED,
+        PRICE_CHANGED,
+        STOCK_CHANGED
+    }
+
+    public static ProductChangedEvent of(Type type, List<ProductChange> changes) {
+        return new ProductChangedEvent(type, changes.stream().map(ProductChange::getProductId).toList(), changes);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.domain.InventoryCheckpoint;
+import com.example.productservice.repository.InventoryCheckpointRepository;
+import com.example.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+// products.stock plus the checkpoint row; the engine's snapshot target
+@Component
+@RequiredArgsConstructor
+public class DbStockStore implements StockStore {
+
+    private final ProductRepository productRepository;
+    private final InventoryCheckpointRepository checkpointRepository;
+
+    @Override
+    public Integer loadStock(long productId) {
+        return productRepository.findStockById(productId).orElse(null);
+    }
+
+    @Override
+    public long lastAppliedEpoch() {
+        return checkpointRepository.findById(InventoryCheckpoint.SINGLETON_ID)
+                .map(InventoryCheckpoint::getLastEpoch)
+                .orElse(0L);
+    }
+
+    @Override
+    @Transactional
+    public void applyEpoch(long epoch, Map<Long, Integer> deltas) {
+        // id order, like reserveStock, so this never deadlocks against row updates elsewhere
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (delta != 0) productRepository.adjustStock(id, delta);
+        });
+        checkpointRepository.save(new InventoryCheckpoint(InventoryCheckpoint.SINGLETON_ID, epoch, Instant.now()));
+    }
+}
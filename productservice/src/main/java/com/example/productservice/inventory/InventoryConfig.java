@@ -0,0 +1,26 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.config.InventoryProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.inventory", name = "enabled", havingValue = "true")
+public class InventoryConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InventoryEngine inventoryEngine(InventoryProperties properties, StockStore store, MeterRegistry registry) {
+        InventoryEngine engine = new InventoryEngine(properties, store);
+        FunctionCounter.builder("product.inventory.reservations", engine, InventoryEngine::getReserved)
+                .tag("outcome", "reserved").register(registry);
+        FunctionCounter.builder("product.inventory.reservations", engine, InventoryEngine::getRejected)
+                .tag("outcome", "rejected").register(registry);
+        Gauge.builder("product.inventory.products", engine, InventoryEngine::getLoadedProducts).register(registry);
+        Gauge.builder("product.inventory.epoch", engine, InventoryEngine::getEpoch).register(registry);
+        return engine;
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory stock counters with lock-free reservations.
+ * <p>
+ * Every product's stock is an {@link AtomicInteger} (loaded from the {@link StockStore} on first
+ * use) and is decremented with a compare-and-set that never goes below zero. Multi-product
+ * reservations are all-or-nothing: a short product undoes the decrements already made.
+ * <p>
+ * A reservation is acknowledged only after its deltas are appended to the write-ahead log.
+ * The log is split into lanes (one file per lane and epoch, a thread always uses the same lane)
+ * so concurrent reservations, even on one hot product, do not serialize on a single file.
+ * Deltas are commutative, so which lane an entry lands in does not matter. A checkpoint closes
+ * the current epoch, folds its summed deltas into the store together with the epoch number and
+ * deletes its files; on startup every epoch left on disk is folded in the same way before any
+ * counter is loaded. A torn entry at the end of a file was never acknowledged and is ignored.
+ */
+@Slf4j
+public class InventoryEngine implements Closeable {
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;   // length + crc
+    private static final int DELTA_BYTES = 12;   // product id + delta
+
+    private final InventoryProperties properties;
+    private final StockStore store;
+    private final Path dir;
+    private final ConcurrentHashMap<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private final Lane[] lanes;
+    private final Object checkpointLock = new Object();
+    private final LongAdder reserved = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private ScheduledExecutorService checkpointer;
+    private volatile long epoch;
+    private boolean closedEpochsPending; // guarded by checkpointLock
+
+    public InventoryEngine(InventoryProperties properties, StockStore store) {
+        this.properties = properties;
+        this.store = store;
+        this.dir = Paths.get(properties.getWalDir());
+        this.lanes = new Lane[Math.max(1, properties.getWalLanes())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(dir);
+        long maxOnDisk = applyClosedEpochs(Long.MAX_VALUE);
+        epoch = Math.max(maxOnDisk, store.lastAppliedEpoch()) + 1;
+        for (Lane lane : lanes) {
+            lane.open(epoch);
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inventory-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = properties.getCheckpointInterval().toMillis();
+        checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Inventory engine started at epoch {} with {} WAL lane(s) in {}", epoch, lanes.length, dir.toAbsolutePath());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+        }
+        checkpoint(); // fold everything into the store on a clean shutdown
+        for (Lane lane : lanes) {
+            lane.close();
+        }
+    }
+
+    /** Current stock of a product this engine has loaded, or null if it has not been touched yet. */
+    public Integer available(long productId) {
+        AtomicInteger counter = counters.get(productId);
+        return counter == null ? null : counter.get();
+    }
+
+    /**
+     * Take the given quantities (product id -> quantity) all-or-nothing.
+     * Returns false, changing nothing, if any product is unknown or short.
+     */
+    public boolean reserve(Map<Long, Integer> quantities) {
+        int n = quantities.size();
+        long[] ids = new long[n];
+        int[] qty = new int[n];
+        AtomicInteger[] slots = new AtomicInteger[n];
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            ids[i] = e.getKey();
+            qty[i] = e.getValue();
+            slots[i] = counter(ids[i]);
+            if (qty[i] <= 0 || slots[i] == null) {
+                rejected.increment();
+                return false;
+            }
+            i++;
+        }
+
+        int taken = 0;
+        while (taken < n && tryTake(slots[taken], qty[taken])) {
+            taken++;
+        }
+        if (taken < n) {
+            giveBack(slots, qty, taken);
+            rejected.increment();
+            return false;
+        }
+
+        try {
+            lane().append(ids, qty);
+        } catch (IOException e) {
+            giveBack(slots, qty, n);
+            throw new UncheckedIOException("Could not write the inventory WAL", e);
+        }
+        reserved.increment();
+        return true;
+    }
+
+    /** Put back stock taken by an earlier reservation (logged as negative quantities). */
+    public void release(Map<Long, Integer> quantities) {
+        int n = quantities.size();
+        long[] ids = new long[n];
+        int[] qty = new int[n];
+        AtomicInteger[] slots = new AtomicInteger[n];
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            ids[i] = e.getKey();
+            qty[i] = -e.getValue();
+            slots[i] = counter(ids[i]); // loaded before logging, so the store value does not already include it
+            i++;
+        }
+        try {
+            lane().append(ids, qty);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the inventory WAL", e);
+        }
+        for (int j = 0; j < n; j++) {
+            if (slots[j] != null) slots[j].addAndGet(-qty[j]);
+        }
+    }
+
+    /** Close the current epoch and fold every closed epoch into the store. */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            boolean written = false;
+            for (Lane lane : lanes) {
+                written |= lane.hasData();
+            }
+            if (written) {
+                long next = epoch + 1;
+                for (Lane lane : lanes) {
+                    lane.rotate(next);
+                }
+                epoch = next;
+                closedEpochsPending = true;
+            }
+            if (closedEpochsPending) {
+                applyClosedEpochs(epoch - 1);
+                closedEpochsPending = false;
+            }
+        }
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public int getLoadedProducts() {
+        return counters.size();
+    }
+
+    public long getReserved() {
+        return reserved.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private AtomicInteger counter(long productId) {
+        AtomicInteger counter = counters.get(productId);
+        if (counter != null) return counter;
+        // an untouched product has no WAL deltas, so the store's value is exact
+        return counters.computeIfAbsent(productId, id -> {
+            Integer stock = store.loadStock(id);
+            return stock == null ? null : new AtomicInteger(stock);
+        });
+    }
+
+    private static boolean tryTake(AtomicInteger counter, int qty) {
+        while (true) {
+            int current = counter.get();
+            if (current < qty) return false;
+            if (counter.compareAndSet(current, current - qty)) return true;
+        }
+    }
+
+    private static void giveBack(AtomicInteger[] slots, int[] qty, int count) {
+        for (int i = 0; i < count; i++) {
+            slots[i].addAndGet(qty[i]);
+        }
+    }
+
+    private Lane lane() {
+        return lanes[(int) (Thread.currentThread().getId() % lanes.length)];
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            // files stay on disk and are picked up by the next checkpoint (or startup)
+            log.error("Inventory checkpoint failed", e);
+        }
+    }
+
+    // fold epochs <= upTo found on disk into the store, oldest first; returns the highest epoch seen
+    private long applyClosedEpochs(long upTo) throws IOException {
+        TreeMap<Long, List<Path>> byEpoch = new TreeMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(p -> byEpoch.computeIfAbsent(epochOf(p), k -> new ArrayList<>()).add(p));
+        }
+        long applied = store.lastAppliedEpoch();
+        for (Map.Entry<Long, List<Path>> entry : byEpoch.headMap(upTo, true).entrySet()) {
+            if (entry.getKey() > applied) {
+                Map<Long, Integer> deltas = new HashMap<>();
+                for (Path path : entry.getValue()) {
+                    readDeltas(path, deltas);
+                }
+                store.applyEpoch(entry.getKey(), deltas);
+                log.debug("Checkpointed inventory epoch {} ({} products)", entry.getKey(), deltas.size());
+            }
+            for (Path path : entry.getValue()) {
+                Files.deleteIfExists(path);
+            }
+        }
+        return byEpoch.isEmpty() ? 0 : byEpoch.lastKey();
+    }
+
+    private static void readDeltas(Path path, Map<Long, Integer> deltas) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 4 || length > buffer.remaining()) break;
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) break;
+            int n = buffer.getInt();
+            for (int i = 0; i < n; i++) {
+                deltas.merge(buffer.getLong(), -buffer.getInt(), Integer::sum);
+            }
+        }
+        if (buffer.hasRemaining()) {
+            log.warn("Ignoring {} torn byte(s) at the end of {}", buffer.remaining(), path);
+        }
+    }
+
+    private Path pathOf(long epoch, int lane) {
+        return dir.resolve(String.format("%s%020d-%03d%s", PREFIX, epoch, lane, SUFFIX));
+    }
+
+    private static long epochOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.indexOf('-', PREFIX.length())));
+    }
+
+    /** One WAL file per epoch; appends and rotation are serialized by the lane's lock. */
+    private final class Lane {
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private FileChannel channel;
+
+        Lane(int index) {
+            this.index = index;
+        }
+
+        void open(long epoch) throws IOException {
+            channel = FileChannel.open(pathOf(epoch, index),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        // entry: length, crc32 of the payload, then count and (product id, quantity taken) pairs
+        void append(long[] ids, int[] qty) throws IOException {
+            int payload = 4 + ids.length * DELTA_BYTES;
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload);
+            buffer.position(HEADER_BYTES);
+            buffer.putInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                buffer.putLong(ids[i]).putInt(qty[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), HEADER_BYTES, payload);
+            buffer.putInt(0, payload).putInt(4, (int) crc.getValue());
+            buffer.flip();
+            lock.lock();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (properties.isFsync()) {
+                    channel.force(false);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean hasData() throws IOException {
+            lock.lock();
+            try {
+                return channel.size() > 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void rotate(long epoch) throws IOException {
+            lock.lock();
+            try {
+                channel.force(false);
+                channel.close();
+                open(epoch);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() throws IOException {
+            lock.lock();
+            try {
+                if (channel != null) channel.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
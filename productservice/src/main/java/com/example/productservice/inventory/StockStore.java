@@ -0,0 +1,16 @@
+package com.example.productservice.inventory;
+
+import java.util.Map;
+
+/** Durable side of the inventory engine: where counters come from and where WAL epochs are folded into. */
+public interface StockStore {
+
+    /** Current stock of a product, or null if it does not exist. */
+    Integer loadStock(long productId);
+
+    /** Last WAL epoch already applied by {@link #applyEpoch}; 0 if none. */
+    long lastAppliedEpoch();
+
+    /** Add the summed deltas of one WAL epoch and record the epoch as applied, atomically. */
+    void applyEpoch(long epoch, Map<Long, Integer> deltas);
+}
@@ -0,0 +1,7 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.domain.InventoryCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InventoryCheckpointRepository extends JpaRepository<InventoryCheckpoint, Integer> {
+}
@@ -1,13 +1,62 @@
 package com.example.productservice.repository;
 
 import com.example.productservice.domain.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByNameContainingIgnoreCase(String q);
+    List<Product> findByIdIn(Collection<Long> ids);
     Page<Product> findByPriceBetween(double min, double max, Pageable pageable);
+
+    long countByPriceBetween(double min, double max);
+
+    // keyset ("seek") pagination: rows strictly after (value, id) in (sortKey, id) order, no COUNT query
+    @Query("select p from Product p where p.id > :id order by p.id")
+    List<Product> seekById(@Param("id") long afterId, Pageable pageable);
+
+    @Query("select p from Product p where p.price >= :price and (p.price > :price or p.id > :id) order by p.price, p.id")
+    List<Product> seekByPrice(@Param("price") double afterPrice, @Param("id") long afterId, Pageable pageable);
+
+    @Query("select p from Product p where p.name >= :name and (p.name > :name or p.id > :id) order by p.name, p.id")
+    List<Product> seekByName(@Param("name") String afterName, @Param("id") long afterId, Pageable pageable);
+
+    @Query("select p from Product p where p.price between :min and :max"
+            + " and p.price >= :price and (p.price > :price or p.id > :id) order by p.price, p.id")
+    List<Product> seekByPriceBetween(@Param("min") double min, @Param("max") double max,
+                                     @Param("price") double afterPrice, @Param("id") long afterId,
+                                     Pageable pageable);
+
+    // cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    // conditional decrement: returns 0 when the product is missing or has too little stock
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :qty where p.id = :id and p.stock >= :qty")
+    int decrementStock(@Param("id") Long id, @Param("qty") int qty);
+
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    // unconditional adjustment used when inventory WAL deltas are checkpointed
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :delta where p.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
 }
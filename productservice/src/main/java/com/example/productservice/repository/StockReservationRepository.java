@@ -0,0 +1,27 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.domain.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    // 1 for the first release of a reservation, 0 for unknown ids and repeats
+    @Modifying(clearAutomatically = true)
+    @Query("update StockReservation r set r.status = 'RELEASED' where r.id = :id and r.status = 'RESERVED'")
+    int markReleased(@Param("id") String id);
+
+    // purge of expired records: lines first, then the reservations themselves
+    @Modifying
+    @Query(value = "delete from stock_reservation_items where reservation_id in"
+            + " (select id from stock_reservations where created_at < :before)", nativeQuery = true)
+    int deleteItemsCreatedBefore(@Param("before") Instant before);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from StockReservation r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
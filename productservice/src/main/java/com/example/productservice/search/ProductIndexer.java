@@ -0,0 +1,57 @@
+package com.example.productservice.search;
+
+import com.example.productservice.domain.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps {@link ProductSearchIndex} in step with the products table:
+ * a full load once the application is up, then incremental updates after each committed change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexer {
+
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final ProductRepository repo;
+    private final ProductSearchIndex index;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = Long.MIN_VALUE;
+        List<Product> batch;
+        do {
+            // keyset scan so loading a large catalog doesn't degrade with OFFSET
+            batch = repo.seekById(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            batch.forEach(index::index);
+            if (!batch.isEmpty()) afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == LOAD_PAGE_SIZE);
+        ready = true;
+        log.info("Product search index built: {} products in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    // changes committed while the initial load runs are picked up again here, index() is idempotent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        repo.findByIdIn(event.productIds()).forEach(index::index);
+    }
+}
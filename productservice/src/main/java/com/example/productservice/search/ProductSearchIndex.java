@@ -0,0 +1,241 @@
+package com.example.productservice.search;
+
+import com.example.productservice.domain.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description.
+ * <p>
+ * Names are indexed by character trigrams so any substring of three or more characters is answered
+ * from posting lists (same semantics as the old {@code LIKE '%q%'}); descriptions are indexed by word.
+ * Re-indexing a product with changed text appends a new document and retires the old one, so
+ * posting lists stay append-only and sorted. Once retired documents make up a quarter of the index
+ * it is rebuilt from the live ones, which bounds memory and posting-list length under steady renames.
+ */
+@Component
+public class ProductSearchIndex {
+
+    public record Result(List<Long> productIds, long total) { }
+
+    private static final int GRAM = 3;
+    // below this many retired documents a rebuild isn't worth it
+    private static final int MIN_RETIRED_TO_COMPACT = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntList> nameGrams = new HashMap<>();
+    private final Map<String, IntList> descriptionTokens = new HashMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private long[] productIds = new long[1024];
+    private String[] names = new String[1024];
+    private String[] descriptions = new String[1024];
+    private int docCount;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // documents held, live and retired
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Product p) {
+        String name = normalize(p.getName());
+        String description = normalize(p.getDescription());
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByProduct.get(p.getId());
+            if (existing != null && names[existing].equals(name) && descriptions[existing].equals(description)) {
+                // text unchanged (e.g. a stock move): only the ranking flag needs updating
+                inStock.set(existing, p.getStock() > 0);
+                return;
+            }
+            if (existing != null) {
+                live.clear(existing);
+            }
+            int doc = addDocument(p.getId(), name, description);
+            inStock.set(doc, p.getStock() > 0);
+            docByProduct.put(p.getId(), doc);
+            if (existing != null) {
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked, paged search. Name matches rank above description-only matches; within a tier
+     * prefix and whole-word name matches come first, then in-stock products, then shorter names.
+     */
+    public Result search(String query, int page, int size) {
+        String q = normalize(query);
+        if (q.isEmpty()) return new Result(List.of(), 0);
+        int limit = Math.max(0, page) * size + size;
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (int doc : nameCandidates(q)) {
+                if (live.get(doc) && names[doc].contains(q)) {
+                    scores.put(doc, nameScore(names[doc], q));
+                }
+            }
+            for (int doc : descriptionCandidates(q)) {
+                if (live.get(doc)) {
+                    scores.putIfAbsent(doc, 1);
+                }
+            }
+
+            Comparator<Integer> ranking = Comparator
+                    .<Integer>comparingInt(scores::get)
+                    .thenComparing(doc -> inStock.get(doc))
+                    .thenComparing(doc -> -names[doc].length())
+                    .thenComparing(doc -> -productIds[doc]);
+            // min-heap keeps only the best `limit` hits instead of sorting every match
+            PriorityQueue<Integer> top = new PriorityQueue<>(ranking);
+            for (Integer doc : scores.keySet()) {
+                top.offer(doc);
+                if (top.size() > limit) top.poll();
+            }
+            List<Integer> ranked = new ArrayList<>(top);
+            ranked.sort(ranking.reversed());
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = page * size; i < ranked.size(); i++) {
+                ids.add(productIds[ranked.get(i)]);
+            }
+            return new Result(ids, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int addDocument(long productId, String name, String description) {
+        int doc = docCount++;
+        if (doc == productIds.length) {
+            int capacity = doc * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        productIds[doc] = productId;
+        names[doc] = name;
+        descriptions[doc] = description;
+        live.set(doc);
+        for (String gram : grams(name)) {
+            nameGrams.computeIfAbsent(gram, k -> new IntList()).add(doc);
+        }
+        for (String token : tokens(description)) {
+            descriptionTokens.computeIfAbsent(token, k -> new IntList()).add(doc);
+        }
+        return doc;
+    }
+
+    // re-adds the live documents in doc order, so the new posting lists come out sorted again;
+    // the cost is amortized over the retirements that triggered it. Caller holds the write lock
+    private void compactIfNeeded() {
+        int retired = docCount - docByProduct.size();
+        if (retired < MIN_RETIRED_TO_COMPACT || retired * 4 < docCount) return;
+
+        long[] oldProductIds = productIds;
+        String[] oldNames = names;
+        String[] oldDescriptions = descriptions;
+        BitSet oldLive = (BitSet) live.clone();
+        BitSet oldInStock = (BitSet) inStock.clone();
+        int capacity = Math.max(1024, Integer.highestOneBit(docByProduct.size()) * 2);
+        productIds = new long[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        nameGrams.clear();
+        descriptionTokens.clear();
+        live.clear();
+        inStock.clear();
+        docCount = 0;
+        for (int old = oldLive.nextSetBit(0); old >= 0; old = oldLive.nextSetBit(old + 1)) {
+            int doc = addDocument(oldProductIds[old], oldNames[old], oldDescriptions[old]);
+            inStock.set(doc, oldInStock.get(old));
+            docByProduct.put(oldProductIds[old], doc);
+        }
+    }
+
+    private Iterable<Integer> nameCandidates(String q) {
+        if (q.length() < GRAM) {
+            // too short for a trigram lookup; scan the (in-memory) names instead
+            List<Integer> all = new ArrayList<>(docCount);
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) all.add(doc);
+            return all;
+        }
+        return intersect(grams(q), nameGrams);
+    }
+
+    private Iterable<Integer> descriptionCandidates(String q) {
+        return intersect(tokens(q), descriptionTokens);
+    }
+
+    // docs present in every posting list, walking the shortest list and probing the others
+    private static List<Integer> intersect(Set<String> terms, Map<String, IntList> postings) {
+        if (terms.isEmpty()) return List.of();
+        List<IntList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            IntList list = postings.get(term);
+            if (list == null) return List.of();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+        IntList shortest = lists.get(0);
+        List<Integer> result = new ArrayList<>();
+        outer:
+        for (int i = 0; i < shortest.size(); i++) {
+            int doc = shortest.get(i);
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(doc)) continue outer;
+            }
+            result.add(doc);
+        }
+        return result;
+    }
+
+    private static int nameScore(String name, String q) {
+        int score = 3;
+        if (name.startsWith(q)) score++;
+        if (tokens(name).contains(q)) score++;
+        return score;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String t : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+}
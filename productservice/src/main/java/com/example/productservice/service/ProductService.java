@@ -1,24 +1,66 @@
 package com.example.productservice.service;
 
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductSummary;
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.cache.ProductCacheKeys;
 import com.example.productservice.domain.Product;
+import com.example.productservice.domain.StockReservation;
+import com.example.productservice.dto.CursorPage;
 import com.example.productservice.dto.ProductDTO;
+import com.example.productcontract.StockReservationItem;
+import com.example.productcontract.StockReservationRequest;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.inventory.InventoryEngine;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.StockReservationRepository;
+import com.example.productservice.search.ProductIndexer;
+import com.example.productservice.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ApplicationEventPublisher events;
+    private final ProductCache productCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductIndexer productIndexer;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationRepository reservationRepository;
+    // present only with product.inventory.enabled=true
+    private final ObjectProvider<InventoryEngine> inventoryEngine;
 
     public ProductDTO toDto(Product p) {
         return ProductDTO.builder()
@@ -26,25 +68,91 @@ public class ProductService {
                 .name(p.getName())
                 .description(p.getDescription())
                 .price(p.getPrice())
-                .stock(p.getStock())
+                .stock(stockOf(p))
                 .build();
     }
 
+    // products.stock lags the in-memory counters until the next checkpoint
+    private Integer stockOf(Product p) {
+        InventoryEngine engine = inventoryEngine.getIfAvailable();
+        Integer live = engine == null || p.getId() == null ? null : engine.available(p.getId());
+        return live != null ? live : p.getStock();
+    }
+
     public Product create(Product p) {
-        return repo.save(p);
+        Product saved = repo.save(p);
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.CREATED, List.of(ProductChange.builder()
+                .type(ProductChange.Type.CREATED)
+                .productId(saved.getId())
+                .name(saved.getName())
+                .price(saved.getPrice())
+                .stock(saved.getStock())
+                .build())));
+        return saved;
+    }
+
+    @Transactional
+    public Optional<ProductDTO> updatePrice(Long id, double price) {
+        return repo.findById(id).map(p -> {
+            p.setPrice(price);
+            events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.PRICE_CHANGED, List.of(ProductChange.builder()
+                    .type(ProductChange.Type.PRICE_CHANGED)
+                    .productId(id)
+                    .price(price)
+                    .build())));
+            return toDto(p);
+        });
     }
 
     public Optional<ProductDTO> findByIdDto(Long id) {
-        return repo.findById(id).map(this::toDto);
+        return productCache.get(id, k -> repo.findById(k).map(this::toDto));
     }
 
     public Optional<Product> findById(Long id) {
         return repo.findById(id);
     }
 
+    // multi-id fetch (used by order-service to validate a whole cart in one call)
+    public List<ProductDTO> findAllByIdDto(Collection<Long> ids) {
+        return resolve(ids);
+    }
+
+    // compact view for order-service: no description on the wire
+    public Optional<ProductSummary> findSummary(Long id) {
+        return findByIdDto(id).map(ProductService::toSummary);
+    }
+
+    public List<ProductSummary> findSummaries(Collection<Long> ids) {
+        return resolve(ids).stream().map(ProductService::toSummary).collect(Collectors.toList());
+    }
+
+    private static ProductSummary toSummary(ProductDTO p) {
+        return new ProductSummary(p.getId(), p.getName(), p.getPrice(), p.getStock());
+    }
+
     public Page<ProductDTO> list(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        return repo.findAll(pageable).map(this::toDto);
+        if (!productCache.isPageCached(page)) {
+            return repo.findAll(pageable).map(this::toDto);
+        }
+        ProductCache.IdPage ids = productCache.getQuery(ProductCacheKeys.list(sortBy, page, size),
+                () -> toIdPage(repo.findAll(pageable)));
+        return new PageImpl<>(resolve(ids.ids()), pageable, ids.total());
+    }
+
+    /**
+     * Ranked, paged search over name and description served by the in-memory index.
+     * Falls back to the derived LIKE query only while the index is still being built.
+     */
+    public Page<ProductDTO> search(String q, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        if (!productIndexer.isReady()) {
+            List<ProductDTO> all = searchByName(q);
+            int from = Math.min(all.size(), page * size);
+            return new PageImpl<>(all.subList(from, Math.min(all.size(), from + size)), pageable, all.size());
+        }
+        ProductSearchIndex.Result result = searchIndex.search(q, page, size);
+        return new PageImpl<>(resolve(result.productIds()), pageable, result.total());
     }
 
     public List<ProductDTO> searchByName(String q) {
@@ -55,17 +163,218 @@ public class ProductService {
     }
 
     public Page<ProductDTO> filterByPrice(double min, double max, int page, int size) {
-        return repo.findByPriceBetween(min, max, PageRequest.of(page, size)).map(this::toDto);
+        Pageable pageable = PageRequest.of(page, size);
+        if (!productCache.isPageCached(page)) {
+            return repo.findByPriceBetween(min, max, pageable).map(this::toDto);
+        }
+        ProductCache.IdPage ids = productCache.getQuery(ProductCacheKeys.price(min, max, page, size),
+                () -> toIdPage(repo.findByPriceBetween(min, max, pageable)));
+        return new PageImpl<>(resolve(ids.ids()), pageable, ids.total());
+    }
+
+    /**
+     * Keyset pagination over (sortBy, id). Every page is a single index range scan no matter
+     * how deep the client is; the COUNT(*) is only run when {@code withTotal} is set.
+     */
+    public CursorPage<ProductDTO> seek(String sortBy, String cursor, int size, boolean withTotal) {
+        SeekCursor after = SeekCursor.decode(cursor, sortBy);
+        Pageable limit = PageRequest.of(0, size + 1); // one extra row tells us whether there is a next page
+        List<Product> rows = switch (sortBy) {
+            case "price" -> repo.seekByPrice(after.priceValue(), after.id(), limit);
+            case "name" -> repo.seekByName(after.value(), after.id(), limit);
+            case "id" -> repo.seekById(after.id(), limit);
+            default -> throw new IllegalArgumentException("Unsupported sort key for seek pagination: " + sortBy);
+        };
+        return toCursorPage(rows, sortBy, size, withTotal ? repo.count() : null);
+    }
+
+    public CursorPage<ProductDTO> seekByPrice(double min, double max, String cursor, int size, boolean withTotal) {
+        SeekCursor after = SeekCursor.decode(cursor, "price");
+        List<Product> rows = repo.seekByPriceBetween(min, max, after.priceValue(), after.id(), PageRequest.of(0, size + 1));
+        return toCursorPage(rows, "price", size, withTotal ? repo.countByPriceBetween(min, max) : null);
     }
 
-    // reduce stock (used by order client)
+    private CursorPage<ProductDTO> toCursorPage(List<Product> rows, String sortBy, int size, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<Product> page = hasNext ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            String value = switch (sortBy) {
+                case "price" -> String.valueOf(last.getPrice());
+                case "name" -> last.getName();
+                default -> "";
+            };
+            next = new SeekCursor(sortBy, value, last.getId()).encode();
+        }
+        return new CursorPage<>(page.stream().map(this::toDto).collect(Collectors.toList()), next, total);
+    }
+
+    /**
+     * Write every product as one JSON line, straight from a fetch-size bounded cursor.
+     * Rows are detached once written so heap use does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<Product> products = repo.streamAll()) {
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                Product p = it.next();
+                out.write(objectMapper.writeValueAsBytes(toDto(p)));
+                out.write('\n');
+                entityManager.detach(p);
+            }
+        }
+        out.flush();
+    }
+
+    // products for the given ids in the same order, served from the id cache where possible
+    private List<ProductDTO> resolve(Collection<Long> ids) {
+        Map<Long, ProductDTO> found = productCache.getAll(ids, missing -> repo.findByIdIn(missing)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, this::toDto)));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static ProductCache.IdPage toIdPage(Page<Product> page) {
+        return new ProductCache.IdPage(page.map(Product::getId).getContent(), page.getTotalElements());
+    }
+
+    // reduce stock (used by order client); single conditional UPDATE so concurrent orders can't oversell
     public boolean reduceStock(Long productId, int qty) {
-        return repo.findById(productId)
-                .map(p -> {
-                    if (p.getStock() < qty) return false;
-                    p.setStock(p.getStock() - qty);
-                    repo.save(p);
-                    return true;
-                }).orElse(false);
+        InventoryEngine engine = inventoryEngine.getIfAvailable();
+        boolean ok = engine != null
+                ? engine.reserve(Map.of(productId, qty))
+                : Boolean.TRUE.equals(transactionTemplate.execute(tx -> repo.decrementStock(productId, qty) == 1));
+        if (ok) {
+            events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED,
+                    List.of(stockChange(productId, -qty))));
+        }
+        return ok;
+    }
+
+    /**
+     * Reserve stock for several products at once, all-or-nothing; returns the reservation id
+     * to release it with. Quantities for the same product are merged and rows are updated in id order
+     * so two concurrent reservations always lock in the same sequence.
+     * With the inventory engine enabled the stock rows are not touched (see {@link InventoryEngine}),
+     * but the reservation itself is still inserted into stock_reservations so it can be released.
+     */
+    public String reserveStock(List<StockReservationItem> items) {
+        Map<Long, Integer> byProduct = merge(items);
+        String reservationId = tryReserve(byProduct);
+        if (reservationId == null) {
+            throw new IllegalStateException("Insufficient stock or product missing: " + byProduct.keySet());
+        }
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, stockChanges(byProduct, -1)));
+        return reservationId;
+    }
+
+    /**
+     * Independent all-or-nothing reservations in one call (bulk order placement); returns
+     * per reservation, in order, its id if it was taken or null. Each one commits on its own,
+     * so a short product only fails the reservations that need it.
+     */
+    public List<String> reserveStockBulk(List<StockReservationRequest> reservations) {
+        List<String> reserved = new ArrayList<>(reservations.size());
+        List<ProductChange> changes = new ArrayList<>();
+        for (StockReservationRequest reservation : reservations) {
+            Map<Long, Integer> byProduct = merge(reservation.getItems());
+            String reservationId = tryReserve(byProduct);
+            if (reservationId != null) changes.addAll(stockChanges(byProduct, -1));
+            reserved.add(reservationId);
+        }
+        if (!changes.isEmpty()) {
+            events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, changes));
+        }
+        return reserved;
+    }
+
+    public enum ReleaseOutcome { RELEASED, ALREADY_RELEASED, NOT_FOUND }
+
+    /**
+     * Give back the stock of a reservation that could not be used (compensation for a failed order
+     * write). Only the first release of an id returns stock; repeats are reported and change nothing.
+     */
+    public ReleaseOutcome releaseReservation(String reservationId) {
+        InventoryEngine engine = inventoryEngine.getIfAvailable();
+        Map<Long, Integer> released = transactionTemplate.execute(tx -> {
+            if (reservationRepository.markReleased(reservationId) == 0) return null;
+            Map<Long, Integer> items = new TreeMap<>(reservationRepository.findById(reservationId)
+                    .map(StockReservation::getItems)
+                    .orElseThrow());
+            if (engine == null) items.forEach(repo::adjustStock);
+            return items;
+        });
+        if (released == null) {
+            return reservationRepository.existsById(reservationId) ? ReleaseOutcome.ALREADY_RELEASED : ReleaseOutcome.NOT_FOUND;
+        }
+        if (engine != null) {
+            // after the status commit: a crash in between loses the release, never doubles it
+            engine.release(released);
+        }
+        events.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, stockChanges(released, 1)));
+        return ReleaseOutcome.RELEASED;
+    }
+
+    // the new reservation's id, or null if a product was short or missing
+    private String tryReserve(Map<Long, Integer> byProduct) {
+        InventoryEngine engine = inventoryEngine.getIfAvailable();
+        if (engine != null) {
+            if (!engine.reserve(byProduct)) return null;
+            try {
+                return transactionTemplate.execute(tx -> recordReservation(byProduct));
+            } catch (RuntimeException e) {
+                engine.release(byProduct); // no record, so nobody could ever release it
+                throw e;
+            }
+        }
+        try {
+            return transactionTemplate.execute(tx -> {
+                for (Map.Entry<Long, Integer> e : byProduct.entrySet()) {
+                    if (repo.decrementStock(e.getKey(), e.getValue()) != 1) {
+                        // unchecked exception rolls back the decrements already applied
+                        throw new IllegalStateException("Insufficient stock or product missing: " + e.getKey());
+                    }
+                }
+                return recordReservation(byProduct);
+            });
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private String recordReservation(Map<Long, Integer> byProduct) {
+        return reservationRepository.save(StockReservation.builder()
+                .id(UUID.randomUUID().toString())
+                .status("RESERVED")
+                .createdAt(Instant.now())
+                .items(new HashMap<>(byProduct))
+                .build()).getId();
+    }
+
+    private static Map<Long, Integer> merge(List<StockReservationItem> items) {
+        Map<Long, Integer> byProduct = new TreeMap<>();
+        for (StockReservationItem item : items) {
+            byProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return byProduct;
+    }
+
+    private static List<ProductChange> stockChanges(Map<Long, Integer> byProduct, int sign) {
+        return byProduct.entrySet().stream()
+                .map(e -> stockChange(e.getKey(), sign * e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static ProductChange stockChange(Long productId, int delta) {
+        return ProductChange.builder()
+                .type(ProductChange.Type.STOCK_CHANGED)
+                .productId(productId)
+                .stockDelta(delta)
+                .build();
     }
 }
@@ -0,0 +1,53 @@
+package com.example.productservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key plus the (value, id) of the last row served.
+ * Clients must treat the encoded form as opaque.
+ */
+record SeekCursor(String sortKey, String value, long id) {
+
+    // the keys ProductService.seek has an index-backed query for
+    static final Set<String> SORT_KEYS = Set.of("id", "price", "name");
+
+    static SeekCursor first(String sortKey) {
+        return switch (sortKey) {
+            case "id" -> new SeekCursor(sortKey, "", Long.MIN_VALUE);
+            case "price" -> new SeekCursor(sortKey, String.valueOf(-Double.MAX_VALUE), Long.MIN_VALUE);
+            case "name" -> new SeekCursor(sortKey, "", Long.MIN_VALUE);
+            default -> throw new IllegalArgumentException("Unsupported sort key for seek pagination: " + sortKey);
+        };
+    }
+
+    static SeekCursor decode(String token, String expectedSortKey) {
+        if (!SORT_KEYS.contains(expectedSortKey)) {
+            throw new IllegalArgumentException("Unsupported sort key for seek pagination: " + expectedSortKey);
+        }
+        if (token == null || token.isBlank()) return first(expectedSortKey);
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // sortKey|id|value -- value last so names containing '|' survive
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(expectedSortKey)) {
+                throw new IllegalArgumentException("Cursor does not belong to sort key " + expectedSortKey);
+            }
+            SeekCursor cursor = new SeekCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+            if (cursor.sortKey().equals("price")) cursor.priceValue(); // reject a malformed price now, not mid-query
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    String encode() {
+        String raw = sortKey + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    double priceValue() {
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.productservice.service;
+
+import com.example.productservice.config.ReservationProperties;
+import com.example.productservice.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// reservations past product.reservations.retention can no longer be released; drop their records
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationPurger {
+
+    private final StockReservationRepository reservationRepository;
+    private final ReservationProperties properties;
+
+    @Scheduled(fixedDelayString = "${product.reservations.purge-interval:1h}")
+    @Transactional
+    public void purge() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        reservationRepository.deleteItemsCreatedBefore(before);
+        int purged = reservationRepository.deleteCreatedBefore(before);
+        if (purged > 0) {
+            log.info("Purged {} expired stock reservation(s)", purged);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.productservice.changelog;
+
+import com.example.productcontract.ProductChange;
+import com.example.productcontract.ProductChangeBatch;
+import com.example.productservice.config.ChangeLogProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductChangeLogTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsResumeAfterAnyOffsetFromMemoryAndFromSegments() throws Exception {
+        ChangeLogProperties properties = properties();
+        properties.setMemoryTail(5);
+        properties.setSegmentSize(DataSize.ofBytes(400));
+        ProductChangeLog log = open(properties);
+        for (long id = 1; id <= 20; id++) {
+            log.append(List.of(stock(id, -1)));
+        }
+
+        assertThat(seqs(log.read(17, 100))).containsExactly(18L, 19L, 20L);   // memory tail
+        assertThat(seqs(log.read(2, 3))).containsExactly(3L, 4L, 5L);          // segment files
+        assertThat(log.read(20, 100).getChanges()).isEmpty();
+        assertThat(log.read(-1, 100).getLastSeq()).isEqualTo(20);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        log.close();
+    }
+
+    @Test
+    void offsetsOutsideTheLogAskForAReset() throws Exception {
+        ChangeLogProperties properties = properties();
+        properties.setSegmentSize(DataSize.ofBytes(200));
+        properties.setMaxSegments(2);
+        ProductChangeLog log = open(properties);
+        for (long id = 1; id <= 20; id++) {
+            log.append(List.of(stock(id, -1)));
+        }
+
+        assertThat(log.read(0, 10).isReset()).isTrue();    // retired segments
+        assertThat(log.read(99, 10).isReset()).isTrue();   // ahead of the log
+        assertThat(log.read(19, 10).isReset()).isFalse();
+        log.close();
+    }
+
+    @Test
+    void reopeningContinuesTheSequenceAndDropsATornLastLine() throws Exception {
+        ProductChangeLog log = open(properties());
+        log.append(List.of(stock(1L, -2), stock(2L, -3)));
+        log.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.write(segment, "{\"seq\":3,\"type\":\"STO".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        }
+
+        ProductChangeLog reopened = open(properties());
+        assertThat(reopened.lastSeq()).isEqualTo(2);
+        reopened.append(List.of(stock(3L, -1)));
+        assertThat(seqs(reopened.read(0, 10))).containsExactly(1L, 2L, 3L);
+        assertThat(reopened.read(2, 10).getChanges().get(0).getStockDelta()).isEqualTo(-1);
+        reopened.close();
+    }
+
+    @Test
+    void segmentScansStopAtTheLastCompleteEntry() throws Exception {
+        ChangeLogProperties properties = properties();
+        properties.setMemoryTail(2);
+        ProductChangeLog log = open(properties);
+        for (long id = 1; id <= 5; id++) {
+            log.append(List.of(stock(id, -1)));
+        }
+        // an append in progress: its bytes are on disk but lastSeq has not moved yet
+        try (Stream<Path> files = Files.list(dir)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.write(segment, "{\"seq\":6,\"type\":\"STO".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        }
+
+        assertThat(seqs(log.read(0, 100))).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(seqs(log.read(1, 2))).containsExactly(2L, 3L);
+        log.close();
+    }
+
+    private ProductChangeLog open(ChangeLogProperties properties) throws Exception {
+        ProductChangeLog log = new ProductChangeLog(properties, objectMapper);
+        log.open();
+        return log;
+    }
+
+    private ChangeLogProperties properties() {
+        ChangeLogProperties properties = new ChangeLogProperties();
+        properties.setDir(dir.toString());
+        return properties;
+    }
+
+    private static ProductChange stock(Long productId, int delta) {
+        return ProductChange.builder().type(ProductChange.Type.STOCK_CHANGED).productId(productId).stockDelta(delta).build();
+    }
+
+    private static List<Long> seqs(ProductChangeBatch batch) {
+        return batch.getChanges().stream().map(ProductChange::getSeq).toList();
+    }
+}
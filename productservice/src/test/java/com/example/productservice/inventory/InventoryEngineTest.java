@@ -0,0 +1,131 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.config.InventoryProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryEngineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        MemoryStockStore store = new MemoryStockStore(Map.of(1L, 1_000));
+        InventoryEngine engine = start(store);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    if (engine.reserve(Map.of(1L, 1))) granted.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        assertThat(granted.get()).isEqualTo(1_000);
+        assertThat(engine.available(1L)).isZero();
+        engine.close();
+        assertThat(store.stock).containsEntry(1L, 0);
+    }
+
+    @Test
+    void multiProductReservationsAreAllOrNothing() throws Exception {
+        InventoryEngine engine = start(new MemoryStockStore(Map.of(1L, 10, 2L, 3)));
+
+        assertThat(engine.reserve(Map.of(1L, 5, 2L, 4))).isFalse();
+        assertThat(engine.available(1L)).isEqualTo(10);
+        assertThat(engine.available(2L)).isEqualTo(3);
+        assertThat(engine.reserve(Map.of(1L, 5, 99L, 1))).isFalse();   // unknown product
+        assertThat(engine.reserve(Map.of(1L, 5, 2L, 3))).isTrue();
+        assertThat(engine.available(1L)).isEqualTo(5);
+        assertThat(engine.available(2L)).isZero();
+        engine.release(Map.of(2L, 3));                                  // compensation
+        assertThat(engine.available(2L)).isEqualTo(3);
+        engine.close();
+    }
+
+    @Test
+    void walIsReplayedIntoTheStoreAfterACrash() throws Exception {
+        MemoryStockStore store = new MemoryStockStore(Map.of(1L, 100, 2L, 100));
+        InventoryEngine crashed = start(store);
+        for (int i = 0; i < 10; i++) {
+            assertThat(crashed.reserve(Map.of(1L, 2, 2L, 1))).isTrue();
+        }
+        crashed.checkpoint();                                  // epoch 1 folded in
+        assertThat(store.stock).containsEntry(1L, 80).containsEntry(2L, 90);
+        assertThat(crashed.reserve(Map.of(1L, 7))).isTrue();   // only in the WAL
+        // no close(): a torn, unacknowledged entry at the end of one lane
+        try (Stream<Path> files = Files.list(dir)) {
+            Path lane = files.filter(p -> p.toFile().length() > 0).findFirst().orElseThrow();
+            Files.write(lane, new byte[]{0, 0, 0, 16, 1, 2}, StandardOpenOption.APPEND);
+        }
+
+        InventoryEngine restarted = start(store);
+        assertThat(store.stock).containsEntry(1L, 73).containsEntry(2L, 90);
+        assertThat(restarted.reserve(Map.of(1L, 73))).isTrue();
+        assertThat(restarted.reserve(Map.of(1L, 1))).isFalse();
+        restarted.close();
+        assertThat(store.stock).containsEntry(1L, 0);
+
+        // epochs already folded in are not applied twice
+        InventoryEngine again = start(store);
+        assertThat(again.available(1L)).isNull();
+        again.close();
+        assertThat(store.stock).containsEntry(1L, 0).containsEntry(2L, 90);
+    }
+
+    private InventoryEngine start(StockStore store) throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.setWalDir(dir.toString());
+        properties.setWalLanes(4);
+        properties.setCheckpointInterval(Duration.ofHours(1));
+        InventoryEngine engine = new InventoryEngine(properties, store);
+        engine.start();
+        return engine;
+    }
+
+    static class MemoryStockStore implements StockStore {
+        final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+        volatile long lastEpoch;
+
+        MemoryStockStore(Map<Long, Integer> initial) {
+            stock.putAll(initial);
+        }
+
+        @Override
+        public Integer loadStock(long productId) {
+            return stock.get(productId);
+        }
+
+        @Override
+        public long lastAppliedEpoch() {
+            return lastEpoch;
+        }
+
+        @Override
+        public synchronized void applyEpoch(long epoch, Map<Long, Integer> deltas) {
+            deltas.forEach((id, delta) -> stock.merge(id, delta, Integer::sum));
+            lastEpoch = epoch;
+        }
+    }
+}
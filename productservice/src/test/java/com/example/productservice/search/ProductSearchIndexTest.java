@@ -0,0 +1,31 @@
+package com.example.productservice.search;
+
+import com.example.productservice.domain.Product;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void renamesAreCompactedAway() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.index(product(id, "steady product " + id));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            index.index(product(1L, "renamed gizmo " + i));
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.documentCount()).isLessThan(2_000);
+        assertThat(index.search("gizmo 9999", 0, 10).productIds()).containsExactly(1L);
+        assertThat(index.search("gizmo 5000", 0, 10).total()).isZero();
+        assertThat(index.search("steady product 42", 0, 10).productIds()).containsExactly(42L);
+        assertThat(index.search("steady", 0, 200).total()).isEqualTo(99);
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder().id(id).name(name).description(name + " description").stock(1).price(1.0).build();
+    }
+}
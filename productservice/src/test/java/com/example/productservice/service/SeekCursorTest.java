@@ -0,0 +1,36 @@
+package com.example.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeekCursorTest {
+
+    @Test
+    void roundTripsEverySupportedKey() {
+        for (String key : SeekCursor.SORT_KEYS) {
+            SeekCursor cursor = new SeekCursor(key, key.equals("price") ? "9.5" : "a|b", 42L);
+            assertThat(SeekCursor.decode(cursor.encode(), key)).isEqualTo(cursor);
+        }
+    }
+
+    @Test
+    void unsupportedSortKeysAreRejected() {
+        // a well-formed token for an unknown key used to fall through to id order
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("stock|42|7".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> SeekCursor.decode(token, "stock")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SeekCursor.decode(null, "stock")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedPriceIsRejectedOnDecode() {
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("price|42|cheap".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> SeekCursor.decode(token, "price")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.productservice.service;
+
+import com.example.productcontract.StockReservationItem;
+import com.example.productcontract.StockReservationRequest;
+import com.example.productservice.domain.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:reservation-test;DB_CLOSE_DELAY=-1",
+        "product.reservations.release-token=test-token"
+})
+@AutoConfigureMockMvc
+class StockReservationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void aReservationIsReleasedOnceByItsId() {
+        Long id = productService.create(Product.builder().name("widget").price(1.0).stock(10).build()).getId();
+
+        String reservationId = productService.reserveStock(List.of(new StockReservationItem(id, 3)));
+        assertThat(stockOf(id)).isEqualTo(7);
+
+        assertThat(productService.releaseReservation(reservationId)).isEqualTo(ProductService.ReleaseOutcome.RELEASED);
+        assertThat(productService.releaseReservation(reservationId))
+                .isEqualTo(ProductService.ReleaseOutcome.ALREADY_RELEASED);
+        assertThat(productService.releaseReservation("no-such-reservation"))
+                .isEqualTo(ProductService.ReleaseOutcome.NOT_FOUND);
+        assertThat(stockOf(id)).isEqualTo(10);
+    }
+
+    @Test
+    void bulkReservationsReturnAnIdPerTakenReservation() {
+        Long id = productService.create(Product.builder().name("gadget").price(1.0).stock(2).build()).getId();
+
+        List<String> ids = productService.reserveStockBulk(List.of(
+                new StockReservationRequest(List.of(new StockReservationItem(id, 2))),
+                new StockReservationRequest(List.of(new StockReservationItem(id, 1)))));
+
+        assertThat(ids.get(0)).isNotNull();
+        assertThat(ids.get(1)).isNull();
+        productService.releaseReservation(ids.get(0));
+        assertThat(stockOf(id)).isEqualTo(2);
+    }
+
+    @Test
+    void releasingOverHttpNeedsTheServiceToken() throws Exception {
+        Long id = productService.create(Product.builder().name("gizmo").price(1.0).stock(5).build()).getId();
+        String reservationId = productService.reserveStock(List.of(new StockReservationItem(id, 5)));
+        String path = "/api/products/reservations/" + reservationId + "/release";
+
+        mockMvc.perform(post(path)).andExpect(status().isForbidden());
+        mockMvc.perform(post(path).header("X-Service-Token", "guessed")).andExpect(status().isForbidden());
+        assertThat(stockOf(id)).isZero();
+
+        mockMvc.perform(post(path).header("X-Service-Token", "test-token")).andExpect(status().isOk());
+        assertThat(stockOf(id)).isEqualTo(5);
+    }
+
+    // what callers see, whether stock lives in products.stock or in the inventory engine
+    private Integer stockOf(Long id) {
+        return productService.findByIdDto(id).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.user_service;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots user-service inside a JMH fork on a random port, without Eureka or SQL logging.
+ * Benchmarks start it in a trial-level setup and close it in the teardown.
+ */
+public final class BenchmarkContext {
+
+    private static final List<String> DEFAULTS = List.of(
+            "server.port=0",
+            "eureka.client.enabled=false",
+            "spring.jpa.show-sql=false");
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>();
+        // as command-line arguments, so they win over application.yml
+        DEFAULTS.forEach(p -> args.add("--" + p));
+        for (String p : properties) args.add("--" + p);
+        return new SpringApplicationBuilder(UserServiceApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.user_service.security;
+
+import com.example.user_service.BenchmarkContext;
+import com.example.user_service.domain.User;
+import com.example.user_service.repository.UserRepository;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Authenticated request throughput with 8 callers, using a token carrying roles as claims (no DB
+ * access per request). With {@code cache=off} the verified-token cache is sized to zero so every
+ * request pays for the full signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 1, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class AuthThroughputBenchmark {
+
+    @Param({"off", "on"})
+    public String cache;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String path;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("auth.cache.token-max-size=" + (cache.equals("on") ? 100_000 : 0));
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench").email("bench@example.com").password("x").role("ROLE_USER").build());
+        path = "/api/users/" + user.getId();
+        authorization = "Bearer " + context.getBean(JwtUtil.class).generateToken(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        int status = mockMvc.perform(get(path).header("Authorization", authorization))
+                .andReturn().getResponse().getStatus();
+        if (status != 200) throw new IllegalStateException("Unexpected status " + status);
+        return status;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.user_service.security;
+
+import com.example.user_service.BenchmarkContext;
+import com.example.user_service.controller.AuthController;
+import com.example.user_service.dto.AuthRequest;
+import com.example.user_service.dto.RegisterRequest;
+import com.example.user_service.service.HashingCapacityExceededException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthController.login throughput at a BCrypt cost ({@code -p strength=12} to compare costs),
+ * one caller per core. Run with {@code -t} at twice the core count to keep the hashing pool
+ * saturated; the {@code rejected} counter is the rate of 429s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 1, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class LoginThroughputBenchmark {
+
+    @Param({"10"})
+    public int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthController authController;
+    private final AuthRequest request = new AuthRequest("bench", "secret");
+
+    // per-thread outcome counts, reported by JMH as rates next to the primary score
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long logins;
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = BenchmarkContext.start("auth.password.strength=" + strength);
+        authController = context.getBean(AuthController.class);
+        authController.register(new RegisterRequest("bench", "bench@example.com", "secret")).get();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public void login(Outcomes outcomes) throws Exception {
+        try {
+            if (authController.login(request).get().getStatusCode().is2xxSuccessful()) outcomes.logins++;
+        } catch (HashingCapacityExceededException e) {
+            outcomes.rejected++;
+        }
+    }
+}
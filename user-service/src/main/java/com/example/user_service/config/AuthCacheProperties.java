@@ -0,0 +1,22 @@
+package com.example.user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "auth.cache")
+public class AuthCacheProperties {
+
+    // verified tokens kept in memory; each entry expires with the token's own exp claim
+    private long tokenMaxSize = 100_000;
+
+    // usernames whose authorities are kept in memory
+    private long authorityMaxSize = 10_000;
+
+    // upper bound on how long a changed role can stay stale if an eviction is missed
+    private Duration authorityTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,20 @@
+package com.example.user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordHashingProperties {
+
+    // BCrypt log rounds; each +1 doubles the CPU per hash. Stored hashes with another cost are rehashed on login
+    private int strength = 10;
+
+    // threads doing BCrypt work; defaults to one per core
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    // hashes allowed to wait for a thread before requests are rejected with 429
+    private int queueCapacity = 64;
+}
@@ -72,11 +72,11 @@ public class SecurityConfig {
     }
 
     /**
-     * Password encoder bean
+     * Password encoder bean; cost comes from auth.password.strength
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties hashingProperties) {
+        return new BCryptPasswordEncoder(hashingProperties.getStrength());
     }
 
     /**
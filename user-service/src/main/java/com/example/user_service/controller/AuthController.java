@@ -1,8 +1,8 @@
 package com.example.user_service.controller;
 
-import com.example.user_service.domain.User;
 import com.example.user_service.dto.AuthRequest;
 import com.example.user_service.dto.AuthResponse;
+import com.example.user_service.dto.RegisterRequest;
 import com.example.user_service.dto.UserDTO;
 import com.example.user_service.security.JwtUtil;
 import com.example.user_service.service.UserService;
@@ -10,10 +10,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -22,23 +23,23 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
 
+    // hashing runs off the servlet thread; 429 when the hashing pool is saturated
     @PostMapping("/register")
-    public ResponseEntity<UserDTO> register(@Valid @RequestBody User user) {
-        UserDTO saved = userService.register(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    public CompletableFuture<ResponseEntity<UserDTO>> register(@Valid @RequestBody RegisterRequest request) {
+        return userService.register(request)
+                .thenApply(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        return userService.findByUsername(request.getUsername())
-                .filter(u -> passwordEncoder.matches(request.getPassword(), u.getPassword())) // ✅ directly use encoder
-                .map(u -> {
-                    String token = jwtUtil.generateToken(u.getUsername());
-                    return ResponseEntity.ok(new AuthResponse(token));
-                })
-                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest request) {
+        return userService.authenticate(request.getUsername(), request.getPassword())
+                .thenApply(user -> user
+                        .map(u -> {
+                            String token = jwtUtil.generateToken(u);
+                            return ResponseEntity.ok(new AuthResponse(token));
+                        })
+                        .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()));
     }
 
     @GetMapping("/me")
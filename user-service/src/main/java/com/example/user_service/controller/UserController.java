@@ -0,0 +1,28 @@
+package com.example.user_service.controller;
+
+import com.example.user_service.dto.UserDTO;
+import com.example.user_service.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserDTO> getUser(@PathVariable Long id) {
+        return userService.findDtoById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    // changing a role revokes every token the user already holds
+    @PutMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserDTO> changeRole(@PathVariable Long id, @RequestParam String role) {
+        return userService.changeRole(id, role).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -25,4 +25,8 @@ public class User {
 
     @Column(nullable = false)
     private String role; // ROLE_USER, ROLE_ADMIN
+
+    // bumped on every role change; tokens carrying an older "ver" claim are rejected
+    @Column(nullable = false)
+    private long tokenVersion;
 }
@@ -0,0 +1,21 @@
+package com.example.user_service.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// self-registration carries no role: new accounts always start as ROLE_USER
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegisterRequest {
+    @NotBlank
+    private String username;
+    @NotBlank
+    @Email
+    private String email;
+    @NotBlank
+    private String password;
+}
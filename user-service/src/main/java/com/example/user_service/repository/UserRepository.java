@@ -3,9 +3,11 @@ package com.example.user_service.repository;
 import com.example.user_service.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    List<User> findByTokenVersionGreaterThan(long tokenVersion);
 }
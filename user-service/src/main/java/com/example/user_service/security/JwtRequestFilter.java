@@ -1,8 +1,7 @@
 package com.example.user_service.security;
 
 
-import com.example.user_service.domain.User;
-import com.example.user_service.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,20 +9,24 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserAuthorityCache userAuthorityCache;
+    private final TokenRevocationList revocationList;
 
 
     @Override
@@ -34,21 +37,35 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.extractUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByUsername(username).orElse(null);
-                if (user != null) {
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = verifiedTokenCache.verify(token).orElse(null);
+            List<GrantedAuthority> authorities = claims == null ? null : authorities(claims);
+            if (authorities != null) {
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        claims.getSubject(),
+                        null,
+                        authorities
+                );
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // roles straight from the signed claims; tokens issued before roles were embedded fall back to the cache
+    private List<GrantedAuthority> authorities(Claims claims) {
+        Object roles = claims.get(JwtUtil.CLAIM_ROLES);
+        Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+        Number version = claims.get(JwtUtil.CLAIM_VERSION, Number.class);
+        if (!(roles instanceof Collection<?> names) || userId == null || version == null) {
+            return claims.getSubject() == null ? null : userAuthorityCache.get(claims.getSubject());
+        }
+        if (!revocationList.isCurrent(userId.longValue(), version.longValue())) {
+            return null; // role changed since this token was issued
+        }
+        return names.stream()
+                .map(r -> (GrantedAuthority) new SimpleGrantedAuthority(r.toString()))
+                .collect(Collectors.toList());
+    }
 }
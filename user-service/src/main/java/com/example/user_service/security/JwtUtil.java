@@ -1,41 +1,53 @@
 package com.example.user_service.security;
 
 import com.example.user_service.config.JwtProperties;
+import com.example.user_service.domain.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.*;
 
 import java.util.Date;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_VERSION = "ver";
+
     private final JwtProperties jwtProperties;
 
-    public String generateToken(String username) {
+    /**
+     * Token carrying the user id, roles and token version as signed claims, so requests can be
+     * authorized without loading the user.
+     */
+    public String generateToken(User user) {
+        String role = user.getRole() == null ? "ROLE_USER" : user.getRole();
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, List.of(role))
+                .claim(CLAIM_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
                 .signWith(SignatureAlgorithm.HS256, jwtProperties.getSecret().getBytes())
                 .compact();
     }
 
-    public String extractUsername(String token) {
+    /**
+     * Verify the signature and expiry once and return the claims.
+     * Throws {@link JwtException} or {@link IllegalArgumentException} for an invalid token.
+     */
+    public Claims parseClaims(String token) {
         return Jwts.parser()
                 .setSigningKey(jwtProperties.getSecret().getBytes())
                 .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+                .getBody();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(jwtProperties.getSecret().getBytes()).parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
     }
 }
@@ -0,0 +1,46 @@
+package com.example.user_service.security;
+
+import com.example.user_service.domain.User;
+import com.example.user_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimum accepted token version per user id. Only users whose role has ever changed have an
+ * entry, so the map stays small; everyone else accepts version 0.
+ * Loaded at startup and re-synced from the DB periodically so role changes made on another
+ * instance are picked up too.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final Map<Long, Long> minVersion = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-ms:30000}", initialDelayString = "${auth.revocation.refresh-ms:30000}")
+    public void reload() {
+        for (User u : userRepository.findByTokenVersionGreaterThan(0)) {
+            revokeBefore(u.getId(), u.getTokenVersion());
+        }
+        log.debug("Token revocation list holds {} users", minVersion.size());
+    }
+
+    public boolean isCurrent(long userId, long tokenVersion) {
+        return tokenVersion >= minVersion.getOrDefault(userId, 0L);
+    }
+
+    /** Reject every token of the user with a version below {@code version}. */
+    public void revokeBefore(long userId, long version) {
+        minVersion.merge(userId, version, Math::max);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.user_service.security;
+
+import com.example.user_service.config.AuthCacheProperties;
+import com.example.user_service.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Granted authorities per username, loaded from the DB on a miss.
+ * Anything that changes a user's role must call {@link #evict(String)}; the TTL only bounds
+ * staleness if that is missed. Unknown users are not cached.
+ */
+@Component
+public class UserAuthorityCache {
+
+    private final LoadingCache<String, List<GrantedAuthority>> cache;
+
+    public UserAuthorityCache(UserRepository userRepository, AuthCacheProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getAuthorityMaxSize())
+                .expireAfterWrite(properties.getAuthorityTtl())
+                .recordStats()
+                .build(username -> userRepository.findByUsername(username)
+                        .map(u -> Collections.<GrantedAuthority>singletonList(new SimpleGrantedAuthority(u.getRole())))
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userAuthorities");
+    }
+
+    /** Authorities for the user, or null if no such user exists. */
+    public List<GrantedAuthority> get(String username) {
+        return cache.get(username);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.user_service.service;
+
+/** The password hashing pool and its queue are full; the caller should retry later. */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException() {
+        super("Too many concurrent password operations, retry later");
+    }
+}
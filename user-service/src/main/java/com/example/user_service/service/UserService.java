@@ -1,26 +1,96 @@
 package com.example.user_service.service;
 
 import com.example.user_service.domain.User;
+import com.example.user_service.dto.RegisterRequest;
 import com.example.user_service.dto.UserDTO;
 import com.example.user_service.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.user_service.security.TokenRevocationList;
+import com.example.user_service.security.UserAuthorityCache;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    // Create user
-    public UserDTO register(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        if (user.getRole() == null) user.setRole("ROLE_USER");
-        User saved = userRepository.save(user);
-        return toDto(saved);
+    private final PasswordHashingService passwordHashingService;
+    private final UserAuthorityCache userAuthorityCache;
+    private final TokenRevocationList revocationList;
+    // DB work after a hash runs here, so the bounded hashing pool only ever does BCrypt
+    private final Executor persistenceExecutor;
+
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       UserAuthorityCache userAuthorityCache, TokenRevocationList revocationList,
+                       @Qualifier("applicationTaskExecutor") Executor persistenceExecutor) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.userAuthorityCache = userAuthorityCache;
+        this.revocationList = revocationList;
+        this.persistenceExecutor = persistenceExecutor;
+    }
+
+    // Create user with ROLE_USER (roles are only granted through changeRole); the password is hashed
+    // on the bounded hashing pool
+    public CompletableFuture<UserDTO> register(RegisterRequest request) {
+        return passwordHashingService.encode(request.getPassword()).thenApplyAsync(hash -> {
+            User user = User.builder()
+                    .username(request.getUsername())
+                    .email(request.getEmail())
+                    .password(hash)
+                    .role("ROLE_USER")
+                    .tokenVersion(0)
+                    .build();
+            User saved = userRepository.save(user);
+            userAuthorityCache.evict(saved.getUsername());
+            return toDto(saved);
+        }, persistenceExecutor);
+    }
+
+    /**
+     * Check credentials on the hashing pool. A hash made with an outdated cost is replaced in the
+     * background after a successful login, so changing auth.password.strength needs no migration.
+     */
+    public CompletableFuture<Optional<User>> authenticate(String username, String rawPassword) {
+        Optional<User> found = userRepository.findByUsername(username);
+        if (found.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        User user = found.get();
+        return passwordHashingService.matches(rawPassword, user.getPassword()).thenApply(ok -> {
+            if (!ok) return Optional.<User>empty();
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                rehash(user.getId(), rawPassword);
+            }
+            return Optional.of(user);
+        });
+    }
+
+    private void rehash(Long userId, String rawPassword) {
+        try {
+            passwordHashingService.encode(rawPassword).thenAcceptAsync(hash -> userRepository.findById(userId)
+                    .ifPresent(u -> {
+                        u.setPassword(hash);
+                        userRepository.save(u);
+                    }), persistenceExecutor);
+        } catch (HashingCapacityExceededException e) {
+            // pool is busy; the next login will try again
+        }
+    }
+
+    // bump the token version so tokens carrying the old role stop working
+    @Transactional
+    public Optional<UserDTO> changeRole(Long id, String role) {
+        return userRepository.findById(id).map(u -> {
+            u.setRole(role);
+            u.setTokenVersion(u.getTokenVersion() + 1);
+            revocationList.revokeBefore(u.getId(), u.getTokenVersion());
+            userAuthorityCache.evict(u.getUsername());
+            return toDto(u);
+        });
     }
 
     public Optional<User> findByUsername(String username) {
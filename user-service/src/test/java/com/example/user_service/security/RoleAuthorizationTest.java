@@ -0,0 +1,137 @@
+package com.example.user_service.security;
+
+import com.example.user_service.config.JwtProperties;
+import com.example.user_service.domain.User;
+import com.example.user_service.dto.RegisterRequest;
+import com.example.user_service.repository.UserRepository;
+import com.example.user_service.service.UserService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "auth.password.strength=4",
+        "spring.datasource.url=jdbc:h2:mem:role-authorization-test;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class RoleAuthorizationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Test
+    void aRoleDowngradeRevokesTokensCarryingTheOldRole() throws Exception {
+        User admin = admin("root1");
+        User bob = register("bob1");
+        User dave = register("dave1");
+        userService.changeRole(bob.getId(), "ROLE_ADMIN");
+        String bobAsAdmin = bearer(userRepository.findById(bob.getId()).orElseThrow());
+        mockMvc.perform(put("/api/users/{id}/role", dave.getId()).param("role", "ROLE_USER")
+                        .header("Authorization", bobAsAdmin))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/users/{id}/role", bob.getId()).param("role", "ROLE_USER")
+                        .header("Authorization", bearer(admin)))
+                .andExpect(status().isOk());
+
+        // the old token is no longer accepted at all, not even for what ROLE_USER may do
+        mockMvc.perform(get("/api/users/{id}", bob.getId()).header("Authorization", bobAsAdmin))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/{id}/role", dave.getId()).param("role", "ROLE_ADMIN")
+                        .header("Authorization", bobAsAdmin))
+                .andExpect(status().isForbidden());
+        // a token issued after the change works with the new role
+        String bobAsUser = bearer(userRepository.findById(bob.getId()).orElseThrow());
+        mockMvc.perform(get("/api/users/{id}", bob.getId()).header("Authorization", bobAsUser))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/{id}/role", dave.getId()).param("role", "ROLE_ADMIN")
+                        .header("Authorization", bobAsUser))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void tokensWithoutRoleClaimsUseTheStoredRole() throws Exception {
+        User admin = admin("root2");
+        User carol = register("carol2");
+
+        mockMvc.perform(put("/api/users/{id}/role", carol.getId()).param("role", "ROLE_USER")
+                        .header("Authorization", legacyBearer(admin.getUsername())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/{id}", carol.getId()).header("Authorization", legacyBearer("carol2")))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/{id}/role", carol.getId()).param("role", "ROLE_ADMIN")
+                        .header("Authorization", legacyBearer("carol2")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/{id}", carol.getId()).header("Authorization", legacyBearer("nobody")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void registrationCannotChooseARole() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"mallory3\",\"email\":\"mallory3@example.com\","
+                                + "\"password\":\"secret\",\"role\":\"ROLE_ADMIN\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.role").value("ROLE_USER"));
+        assertThat(userRepository.findByUsername("mallory3").orElseThrow().getRole()).isEqualTo("ROLE_USER");
+    }
+
+    private User register(String username) throws Exception {
+        userService.register(new RegisterRequest(username, username + "@example.com", "secret")).get();
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    private User admin(String username) throws Exception {
+        User user = register(username);
+        userService.changeRole(user.getId(), "ROLE_ADMIN");
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    // the shape of tokens issued before roles and versions were embedded
+    private String legacyBearer(String username) {
+        return "Bearer " + Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256, jwtProperties.getSecret().getBytes())
+                .compact();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.user_service.security;
+
+import com.example.user_service.config.AuthCacheProperties;
+import com.example.user_service.config.JwtProperties;
+import com.example.user_service.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenCacheTest {
+
+    private static final User ALICE = User.builder().id(1L).username("alice").role("ROLE_USER").build();
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(jwtProperties("secret-one", 60_000)));
+    private final VerifiedTokenCache cache =
+            new VerifiedTokenCache(jwtUtil, new AuthCacheProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void aVerifiedTokenIsParsedOnce() {
+        String token = jwtUtil.generateToken(ALICE);
+
+        assertThat(cache.verify(token)).hasValueSatisfying(c -> assertThat(c.getSubject()).isEqualTo("alice"));
+        assertThat(cache.verify(token)).isPresent();
+        verify(jwtUtil, times(1)).parseClaims(anyString());
+    }
+
+    @Test
+    void forgedTokensAreRejectedEveryTime() {
+        String forged = new JwtUtil(jwtProperties("secret-two", 60_000)).generateToken(ALICE);
+
+        assertThat(cache.verify(forged)).isEmpty();
+        assertThat(cache.verify(forged)).isEmpty();
+        assertThat(cache.verify("not-a-token")).isEmpty();
+        // nothing invalid was cached: each attempt was checked again
+        verify(jwtUtil, times(3)).parseClaims(anyString());
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        String expired = new JwtUtil(jwtProperties("secret-one", -1_000)).generateToken(ALICE);
+
+        assertThat(cache.verify(expired)).isEmpty();
+    }
+
+    private static JwtProperties jwtProperties(String secret, long expirationMs) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        properties.setExpirationMs(expirationMs);
+        return properties;
+    }
+}
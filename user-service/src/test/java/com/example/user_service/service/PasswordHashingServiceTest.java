@@ -0,0 +1,69 @@
+package com.example.user_service.service;
+
+import com.example.user_service.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void aFullPoolAndQueueRefuseMoreWork() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.encode(any())).thenAnswer(call -> {
+            unblock.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        PasswordHashingService service = new PasswordHashingService(slow, properties(4, 1, 1), new SimpleMeterRegistry());
+        try {
+            // one hash runs, one waits in the queue, the third is refused
+            CompletableFuture<String> running = service.encode("a");
+            CompletableFuture<String> queued = service.encode("b");
+            assertThatThrownBy(() -> service.encode("c")).isInstanceOf(HashingCapacityExceededException.class);
+
+            unblock.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+            assertThat(service.encode("d").get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        } finally {
+            unblock.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void hashesWithAnotherCostNeedARehash() {
+        PasswordHashingService service = new PasswordHashingService(
+                new BCryptPasswordEncoder(4), properties(4, 1, 1), new SimpleMeterRegistry());
+        try {
+            assertThat(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret"))).isFalse();
+            assertThat(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+            // not BCrypt, or nothing stored: leave it alone
+            assertThat(service.needsRehash("plain")).isFalse();
+            assertThat(service.needsRehash("$2a$xx$abc")).isFalse();
+            assertThat(service.needsRehash(null)).isFalse();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static PasswordHashingProperties properties(int strength, int poolSize, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+}